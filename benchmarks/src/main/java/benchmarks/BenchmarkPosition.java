@@ -0,0 +1,118 @@
+package benchmarks;
+
+import chess.*;
+
+/**
+ * Representative positions the engine benchmarks run against. Boards use the
+ * same text layout as the passoff test boards: rank 8 first, upper case for
+ * white and lower case for black.
+ */
+public enum BenchmarkPosition {
+    OPENING("""
+            |r| |b|q|k|b|n|r|
+            |p|p|p|p| |p|p|p|
+            | | |n| | | | | |
+            | | | | |p| | | |
+            | | | | |P| | | |
+            | | | | | |N| | |
+            |P|P|P|P| |P|P|P|
+            |R|N|B|Q|K|B| |R|
+            """, ChessGame.TeamColor.WHITE, move(1, 6, 4, 3, null)),
+    MIDDLEGAME("""
+            |r| | | |k| | |r|
+            |p| |p|p|q|p|b| |
+            |b|n| | |p|n|p| |
+            | | | |P|N| | | |
+            | |p| | |P| | | |
+            | | |N| | |Q| |p|
+            |P|P|P|B|B|P|P|P|
+            |R| | | |K| | |R|
+            """, ChessGame.TeamColor.WHITE, move(5, 5, 6, 7, null)),
+    ENDGAME("""
+            | | | | | | | | |
+            | | |p| | | | | |
+            | | | |p| | | | |
+            |K|P| | | | | |r|
+            | |R| | | |p| |k|
+            | | | | | | | | |
+            | | | | |P| |P| |
+            | | | | | | | | |
+            """, ChessGame.TeamColor.WHITE, move(4, 2, 4, 6, null)),
+    PROMOTION("""
+            |n| |n| | | | | |
+            |P|P|P|k| | | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            | | | | |K|p|p|p|
+            | | | | | |N| |N|
+            """, ChessGame.TeamColor.BLACK, move(2, 7, 1, 8, ChessPiece.PieceType.QUEEN));
+
+    private final String boardText;
+    private final ChessGame.TeamColor sideToMove;
+    private final ChessMove sampleMove;
+
+    BenchmarkPosition(String boardText, ChessGame.TeamColor sideToMove, ChessMove sampleMove) {
+        this.boardText = boardText;
+        this.sideToMove = sideToMove;
+        this.sampleMove = sampleMove;
+    }
+
+    /**
+     * @return a new game set up at this position
+     */
+    public ChessGame newGame() {
+        ChessGame game = new ChessGame();
+        game.setBoard(loadBoard(boardText));
+        game.setTeamTurn(sideToMove);
+        return game;
+    }
+
+    public ChessGame.TeamColor sideToMove() {
+        return sideToMove;
+    }
+
+    /**
+     * @return a legal move for the side to move in this position
+     */
+    public ChessMove sampleMove() {
+        return sampleMove;
+    }
+
+    private static ChessMove move(int fromRow, int fromCol, int toRow, int toCol, ChessPiece.PieceType promotion) {
+        return new ChessMove(ChessPosition.of(fromRow, fromCol), ChessPosition.of(toRow, toCol), promotion);
+    }
+
+    private static ChessBoard loadBoard(String boardText) {
+        ChessBoard board = new ChessBoard();
+        int row = 8;
+        int column = 1;
+        for (char c : boardText.toCharArray()) {
+            switch (c) {
+                case '\n' -> {
+                    column = 1;
+                    row--;
+                }
+                case ' ' -> column++;
+                case '|' -> {
+                }
+                default -> {
+                    ChessGame.TeamColor color = Character.isLowerCase(c) ? ChessGame.TeamColor.BLACK
+                            : ChessGame.TeamColor.WHITE;
+                    ChessPiece.PieceType type = switch (Character.toLowerCase(c)) {
+                        case 'k' -> ChessPiece.PieceType.KING;
+                        case 'q' -> ChessPiece.PieceType.QUEEN;
+                        case 'b' -> ChessPiece.PieceType.BISHOP;
+                        case 'n' -> ChessPiece.PieceType.KNIGHT;
+                        case 'r' -> ChessPiece.PieceType.ROOK;
+                        default -> ChessPiece.PieceType.PAWN;
+                    };
+                    board.addPiece(ChessPosition.of(row, column), ChessPiece.of(color, type));
+                    column++;
+                }
+            }
+        }
+        return board;
+    }
+}
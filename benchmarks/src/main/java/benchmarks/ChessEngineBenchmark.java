@@ -0,0 +1,135 @@
+package benchmarks;
+
+import chess.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the chess engine's hot paths on each {@link BenchmarkPosition}.
+ * Run through {@link BenchmarkRunner} to get allocation rates alongside times.
+ * <p>
+ * validMoves, isInCheckmate and isInStalemate clear the game's legal move
+ * cache before each call, so they time move generation; their *Cached
+ * variants time the cache hit. makeMove needs an unplayed game for every
+ * call, so it runs in fixed batches over games built before the run, which
+ * keeps building them out of both the time and the allocation figures.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChessEngineBenchmark {
+
+    // makeMove calls per measured batch
+    static final int BATCH = 5_000;
+    private static final int WARMUP_BATCHES = 10;
+    private static final int MEASURED_BATCHES = 10;
+
+    @Param
+    public BenchmarkPosition position;
+
+    private ChessGame game;
+    private ChessBoard board;
+    private ChessGame.TeamColor sideToMove;
+    private List<ChessPosition> pieces;
+
+    @Setup
+    public void setUp() {
+        game = position.newGame();
+        board = game.getBoard();
+        sideToMove = position.sideToMove();
+        pieces = board.getTeamPositions(sideToMove);
+    }
+
+    /**
+     * One unplayed game for every makeMove call of the run, built up front
+     */
+    @State(Scope.Thread)
+    public static class FreshGames {
+        private final ChessGame[] games = new ChessGame[(WARMUP_BATCHES + MEASURED_BATCHES) * BATCH];
+        private int next;
+
+        @Setup(Level.Trial)
+        public void setUp(ChessEngineBenchmark benchmark) {
+            for (int i = 0; i < games.length; i++) {
+                games[i] = benchmark.position.newGame();
+            }
+        }
+
+        ChessGame next() {
+            if (next == games.length) {
+                throw new IllegalStateException("Out of fresh games; keep the annotated iteration and batch counts");
+            }
+            ChessGame game = games[next];
+            games[next++] = null; // let a played game be collected
+            return game;
+        }
+    }
+
+    @Benchmark
+    public void pieceMoves(Blackhole blackhole) {
+        for (ChessPosition start : pieces) {
+            blackhole.consume(board.getPiece(start).pieceMoves(board, start));
+        }
+    }
+
+    /**
+     * Legal moves of every piece in a position the game has not cached:
+     * one move generation, then a lookup per piece
+     */
+    @Benchmark
+    public void validMoves(Blackhole blackhole) {
+        game.clearLegalMoveCache();
+        for (ChessPosition start : pieces) {
+            blackhole.consume(game.validMoves(start));
+        }
+    }
+
+    /**
+     * Legal moves of every piece when the position's moves are already cached
+     */
+    @Benchmark
+    public void validMovesCached(Blackhole blackhole) {
+        for (ChessPosition start : pieces) {
+            blackhole.consume(game.validMoves(start));
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = WARMUP_BATCHES, batchSize = BATCH)
+    @Measurement(iterations = MEASURED_BATCHES, batchSize = BATCH)
+    @OperationsPerInvocation(BATCH)
+    public ChessGame makeMove(FreshGames fresh) throws InvalidMoveException {
+        ChessGame freshGame = fresh.next();
+        freshGame.makeMove(position.sampleMove());
+        return freshGame;
+    }
+
+    @Benchmark
+    public boolean isInCheckmate() {
+        game.clearLegalMoveCache();
+        return game.isInCheckmate(sideToMove);
+    }
+
+    @Benchmark
+    public boolean isInStalemate() {
+        game.clearLegalMoveCache();
+        return game.isInStalemate(sideToMove);
+    }
+
+    @Benchmark
+    public boolean isInCheckmateCached() {
+        return game.isInCheckmate(sideToMove);
+    }
+
+    @Benchmark
+    public ChessBoard copyBoard() {
+        return game.copyBoard(board);
+    }
+}
@@ -0,0 +1,44 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.Perft;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Perft throughput. Divide the node count of a run by its time to get the
+ * move generator's nodes per second. parallelPerft runs the same count on
+ * the common fork-join pool, for comparing scaling across cores.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PerftBenchmark {
+
+    @Param
+    public BenchmarkPosition position;
+
+    @Param({"3"})
+    public int depth;
+
+    private ChessGame game;
+
+    @Setup
+    public void setUp() {
+        game = position.newGame();
+    }
+
+    @Benchmark
+    public long perft() {
+        return Perft.perft(game, depth);
+    }
+
+    @Benchmark
+    public long parallelPerft() {
+        return Perft.parallelPerft(game, depth);
+    }
+}
@@ -0,0 +1,63 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.engine.SearchEngine;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import chess.engine.TranspositionTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed-depth search latency, the cost of one bot move at a given strength.
+ * The returned node count over the time per operation gives nodes per second.
+ * The transposition table is cleared before each search, so every operation
+ * measures a cold search rather than a lookup of the previous result.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SearchBenchmark {
+
+    @Param
+    public BenchmarkPosition position;
+
+    @Param({"4"})
+    public int depth;
+
+    // search threads, capped at the available processors
+    @Param({"1"})
+    public int threads;
+
+    private final TranspositionTable table = new TranspositionTable(TranspositionTable.DEFAULT_MEGABYTES);
+    private SearchEngine engine;
+    private ChessGame game;
+    private SearchLimits limits;
+
+    @Setup
+    public void setUp() {
+        game = position.newGame();
+        engine = new SearchEngine(table);
+        limits = SearchLimits.depth(depth).withThreads(threads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        engine.close();
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        table.clear();
+    }
+
+    @Benchmark
+    public long search() {
+        SearchResult result = engine.search(game, limits);
+        return result.nodes();
+    }
+}
@@ -215,7 +215,7 @@ public class InGameClient implements ServerMessageHandler {
         int col = file - 'a' + 1;
         int row = rank - '0';
 
-        return new ChessPosition(row, col);
+        return ChessPosition.of(row, col);
     }
 
     public String getAuthToken() {
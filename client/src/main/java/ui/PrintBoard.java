@@ -56,7 +56,7 @@ public class PrintBoard {
                 boolean lightSquare = ((file + rankNumber) % 2 == 0);
                 String bg = lightSquare ? SET_BG_COLOR_LIGHT_LIGHT_GREY : SET_BG_COLOR_LIGHT_GREY;
 
-                ChessPiece piece = board.getPiece(new ChessPosition(rankNumber, file + 1));
+                ChessPiece piece = board.getPiece(ChessPosition.of(rankNumber, file + 1));
                 String glyph = (piece == null) ? EMPTY : pieceToGlyph(piece);
 
 
@@ -147,7 +147,7 @@ public class PrintBoard {
                     .append(RESET_TEXT_COLOR).append(RESET_BG_COLOR);
 
             for (int file : fileOrder) {
-                ChessPosition pos = new ChessPosition(rankNumber, file + 1);
+                ChessPosition pos = ChessPosition.of(rankNumber, file + 1);
 
                 boolean lightSquare = ((file + rankNumber) % 2 == 0);
                 String bg = lightSquare ? SET_BG_COLOR_LIGHT_LIGHT_GREY : SET_BG_COLOR_LIGHT_GREY;
@@ -4,6 +4,7 @@ import com.google.gson.Gson;
 import model.AuthData;
 import model.GameData;
 
+import serialization.GsonFactory;
 import ui.request.JoinGameRequest;
 import ui.request.LoginRequest;
 import ui.request.RegisterRequest;
@@ -24,7 +25,7 @@ import java.util.Collection;
 public class ServerFacade {
     String serverUrl;
     public String authToken;
-    private final Gson gson = new Gson();
+    private final Gson gson = GsonFactory.gson();
 
     public ServerFacade(String url) {
         this.serverUrl = url;
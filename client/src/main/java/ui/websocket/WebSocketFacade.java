@@ -4,6 +4,7 @@ import chess.ChessMove;
 import com.google.gson.Gson;
 import jakarta.websocket.*;
 
+import serialization.GsonFactory;
 import websocket.commands.UserGameCommand;
 import websocket.messages.ErrorMessage;
 import websocket.messages.LoadGameMessage;
@@ -17,7 +18,7 @@ import java.util.function.Consumer;
 
 public class WebSocketFacade extends Endpoint{
 
-    private final Gson gson = new Gson();
+    private final Gson gson = GsonFactory.gson();
 
     private Session session;
 
@@ -72,19 +73,11 @@ public class WebSocketFacade extends Endpoint{
                 return;
             }
 
+            // the shared Gson already decodes to the subclass named by the message type
             switch (base.getServerMessageType()) {
-                case LOAD_GAME -> {
-                    LoadGameMessage msg = gson.fromJson(json, LoadGameMessage.class);
-                    onLoadGame.accept(msg);
-                }
-                case NOTIFICATION -> {
-                    NotificationMessage msg = gson.fromJson(json, NotificationMessage.class);
-                    onNotification.accept(msg);
-                }
-                case ERROR -> {
-                    ErrorMessage msg = gson.fromJson(json, ErrorMessage.class);
-                    onError.accept(msg);
-                }
+                case LOAD_GAME -> onLoadGame.accept((LoadGameMessage) base);
+                case NOTIFICATION -> onNotification.accept((NotificationMessage) base);
+                case ERROR -> onError.accept((ErrorMessage) base);
             }
         } catch (Exception e) {
             System.out.println("Exception in handleIncoming:");
@@ -1,6 +1,7 @@
 package dataaccess;
 
 import chess.ChessGame;
+import chess.ChessMove;
 import model.GameData;
 
 import java.sql.SQLException;
@@ -13,4 +14,15 @@ public interface GameDAO {
     void updateGamePlayers(int id, String playerColor, String username) throws DataAccessException;
     void clear() throws DataAccessException;
     void updateGame(int id, ChessGame game) throws DataAccessException;
+
+    /**
+     * Records one move of a game without rewriting the stored game. Games are
+     * read back as their latest snapshot with the moves recorded since then
+     * replayed, so updateGame only needs to be called every few moves.
+     *
+     * @param id   the game the move was made in
+     * @param move the move
+     * @param ply  the move's ply number, 1 for white's first move
+     */
+    void appendMove(int id, ChessMove move, int ply) throws DataAccessException;
 }
@@ -1,6 +1,7 @@
 package dataaccess;
 
 import chess.ChessGame;
+import chess.ChessMove;
 import model.GameData;
 
 import java.util.*;
@@ -9,6 +10,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 public class MemoryGameDAO implements GameDAO{
 
     private final Map<Integer, GameData> gamesList = new HashMap<>();
+    private final Map<Integer, List<ChessMove>> moveLogs = new HashMap<>();
     private final AtomicInteger nextId = new AtomicInteger(1);
 
     @Override
@@ -77,6 +79,7 @@ public class MemoryGameDAO implements GameDAO{
     @Override
     public void clear() {
         gamesList.clear();
+        moveLogs.clear();
         nextId.set(1);
     }
 
@@ -97,4 +100,17 @@ public class MemoryGameDAO implements GameDAO{
 
         gamesList.put(id, updateGame);
     }
+
+    // the stored game is the caller's own object, so only the log needs recording
+    @Override
+    public void appendMove(int id, ChessMove move, int ply) throws DataAccessException {
+        if (!gamesList.containsKey(id)) {
+            throw new DataAccessException("Game with ID " + id + " doesn't exist");
+        }
+        List<ChessMove> log = moveLogs.computeIfAbsent(id, gameId -> new ArrayList<>());
+        if (ply != log.size() + 1) {
+            throw new DataAccessException("Expected ply " + (log.size() + 1) + " but got " + ply);
+        }
+        log.add(move);
+    }
 }
@@ -1,15 +1,30 @@
 package dataaccess;
 
+import chess.ChessBoard;
 import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.GameCodec;
+import chess.InvalidMoveException;
+import chess.PackedMove;
 import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
 import model.GameData;
+import serialization.GsonFactory;
 
 import java.sql.*;
 import java.util.*;
 
 public class SQLGameDAO implements GameDAO {
 
-    private final Gson gson = new Gson();
+    private final Gson gson = GsonFactory.gson();
+    // true while the table still has the old JSON game column
+    private boolean hasLegacyColumn;
 
     private final String[] createStatement = {
             """
@@ -18,10 +33,19 @@ public class SQLGameDAO implements GameDAO {
             whiteUsername VARCHAR(255) DEFAULT NULL,
             blackUsername VARCHAR(255) DEFAULT NULL,
             gameName VARCHAR(255),
-            game TEXT,
+            gameState BLOB,
+            snapshotPly INT NOT NULL DEFAULT 0,
             PRIMARY KEY (gameID),
             INDEX(gameID)
             ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci
+    """,
+            """
+            CREATE TABLE IF NOT EXISTS game_moves (
+            gameID INT NOT NULL,
+            ply INT NOT NULL,
+            move INT NOT NULL,
+            PRIMARY KEY (gameID, ply)
+            ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci
     """
 
     };
@@ -38,23 +62,65 @@ public class SQLGameDAO implements GameDAO {
                     preparedStatement.executeUpdate();
                 }
             }
+            migrateLegacyGames(conn);
         } catch (SQLException e) {
             throw new DataAccessException("Unable to configure game table", e);
         }
     }
 
+    /**
+     * Games used to be stored as reflective Gson JSON in a game TEXT column.
+     * Adds the binary gameState column to such tables and converts every JSON
+     * row, clearing its old column. Rows an older server writes afterwards are
+     * still read from JSON and converted when loaded.
+     */
+    private void migrateLegacyGames(Connection conn) throws SQLException, DataAccessException {
+        Set<String> columns = new HashSet<>();
+        try (var resultSet = conn.getMetaData().getColumns(conn.getCatalog(), null, "games", null)) {
+            while (resultSet.next()) {
+                columns.add(resultSet.getString("COLUMN_NAME").toLowerCase());
+            }
+        }
+        if (!columns.contains("gamestate")) {
+            try (var statement = conn.prepareStatement("ALTER TABLE games ADD COLUMN gameState BLOB")) {
+                statement.executeUpdate();
+            }
+        }
+        if (!columns.contains("snapshotply")) {
+            try (var statement = conn.prepareStatement("ALTER TABLE games ADD COLUMN snapshotPly INT NOT NULL DEFAULT 0")) {
+                statement.executeUpdate();
+            }
+        }
+        hasLegacyColumn = columns.contains("game");
+        if (!hasLegacyColumn) {
+            return;
+        }
+
+        Map<Integer, ChessGame> legacyGames = new HashMap<>();
+        String sql = "SELECT gameID, game FROM games WHERE gameState IS NULL AND game IS NOT NULL";
+        try (var statement = conn.prepareStatement(sql);
+             var resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                legacyGames.put(resultSet.getInt("gameID"), fromLegacyJson(resultSet.getString("game")));
+            }
+        }
+        for (var entry : legacyGames.entrySet()) {
+            writeGame(conn, entry.getKey(), entry.getValue());
+        }
+    }
+
     @Override
     public GameData createGame(String gameName) throws DataAccessException, SQLException {
         ChessGame chessGame = new ChessGame();
-        var json = gson.toJson(chessGame);
+        byte[] encoded = GameCodec.encode(chessGame);
 
-        String sql = "INSERT INTO games (whiteUsername, blackUsername, gameName, game) VALUES (?, ?, ?, ?)";
+        String sql = "INSERT INTO games (whiteUsername, blackUsername, gameName, gameState) VALUES (?, ?, ?, ?)";
         try (Connection conn = DatabaseManager.getConnection();
         var statement = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             statement.setNull(1, Types.VARCHAR);
             statement.setNull(2, Types.VARCHAR);
             statement.setString(3, gameName);
-            statement.setString(4, json);
+            statement.setBytes(4, encoded);
             statement.executeUpdate();
 
             try (var keys = statement.getGeneratedKeys()){
@@ -81,8 +147,14 @@ public class SQLGameDAO implements GameDAO {
                     String whiteU = resultSet.getString("whiteUsername");
                     String blackU = resultSet.getString("blackUsername");
                     String gameName = resultSet.getString("gameName");
-                    var json = resultSet.getString("game");
-                    ChessGame chessGame = gson.fromJson(json, ChessGame.class);
+                    boolean legacy = resultSet.getBytes("gameState") == null;
+                    ChessGame chessGame = readGame(resultSet);
+                    if (legacy && chessGame != null) {
+                        writeGame(conn, id, chessGame); // convert the JSON row now that it is loaded
+                    }
+                    if (chessGame != null) {
+                        replayMoves(conn, id, chessGame);
+                    }
                     return new GameData(id, whiteU, blackU, gameName, chessGame);
                 }
                 return null;
@@ -105,9 +177,30 @@ public class SQLGameDAO implements GameDAO {
                 String whiteU = resultSet.getString("whiteUsername");
                 String blackU = resultSet.getString("blackUsername");
                 String gameName = resultSet.getString("gameName");
-                var json = resultSet.getString("game");
-                ChessGame chessGame = gson.fromJson(json, ChessGame.class);
-                games.add(new GameData(id, whiteU, blackU, gameName, chessGame));
+                games.add(new GameData(id, whiteU, blackU, gameName, readGame(resultSet)));
+            }
+
+            // one pass over the moves recorded since each snapshot brings every game up to date
+            Map<Integer, ChessGame> gamesById = new HashMap<>();
+            for (GameData game : games) {
+                if (game.game() != null) {
+                    gamesById.put(game.gameID(), game.game());
+                }
+            }
+            String movesSql = """
+                    SELECT m.gameID, m.ply, m.move FROM game_moves m
+                    JOIN games g ON g.gameID = m.gameID
+                    WHERE m.ply > g.snapshotPly
+                    ORDER BY m.gameID, m.ply
+                    """;
+            try (var moveStatement = conn.prepareStatement(movesSql);
+                 var moves = moveStatement.executeQuery()) {
+                while (moves.next()) {
+                    ChessGame game = gamesById.get(moves.getInt("gameID"));
+                    if (game != null) {
+                        replayMove(game, moves.getInt("ply"), moves.getInt("move"));
+                    }
+                }
             }
         } catch (SQLException e) {
             throw new DataAccessException("Error listing games: " + e.getMessage());
@@ -154,8 +247,10 @@ public class SQLGameDAO implements GameDAO {
     @Override
     public void clear() throws DataAccessException {
         try (Connection conn = DatabaseManager.getConnection();
-        var statement = conn.prepareStatement("TRUNCATE TABLE games")) {
+        var statement = conn.prepareStatement("TRUNCATE TABLE games");
+        var moveStatement = conn.prepareStatement("TRUNCATE TABLE game_moves")) {
             statement.executeUpdate();
+            moveStatement.executeUpdate();
         } catch (SQLException e) {
             throw new DataAccessException("Error clearing games: " + e.getMessage());
         }
@@ -163,20 +258,128 @@ public class SQLGameDAO implements GameDAO {
 
     @Override
     public void updateGame(int id, ChessGame game) throws DataAccessException {
-        String sql = "UPDATE games SET game = ? WHERE gameID = ?";
-        String json = gson.toJson(game);
+        try (Connection conn = DatabaseManager.getConnection()) {
+            int rows = writeGame(conn, id, game);
+            if (rows == 0){
+                throw new DataAccessException("Game not found");
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Error updating game: " + e.getMessage());
+        }
+    }
 
+    @Override
+    public void appendMove(int id, ChessMove move, int ply) throws DataAccessException {
+        String sql = "INSERT INTO game_moves (gameID, ply, move) VALUES (?, ?, ?)";
         try (Connection conn = DatabaseManager.getConnection();
-            var statement = conn.prepareStatement(sql)) {
-
-            statement.setString(1, json);
-            statement.setInt(2, id);
-             int rows = statement.executeUpdate();
-             if (rows == 0){
-                 throw new DataAccessException("Game not found");
-             }
+             var statement = conn.prepareStatement(sql)) {
+            statement.setInt(1, id);
+            statement.setInt(2, ply);
+            statement.setInt(3, PackedMove.of(move));
+            statement.executeUpdate();
         } catch (SQLException e) {
-            throw new DataAccessException("Error updating game: " + e.getMessage());
+            throw new DataAccessException("Error recording move: " + e.getMessage());
+        }
+    }
+
+    // applies the moves recorded after the game's snapshot was written
+    private void replayMoves(Connection conn, int id, ChessGame game) throws SQLException, DataAccessException {
+        String sql = "SELECT ply, move FROM game_moves WHERE gameID = ? AND ply > ? ORDER BY ply";
+        try (var statement = conn.prepareStatement(sql)) {
+            statement.setInt(1, id);
+            statement.setInt(2, game.getPlyCount());
+            try (var resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    replayMove(game, resultSet.getInt("ply"), resultSet.getInt("move"));
+                }
+            }
+        }
+    }
+
+    private void replayMove(ChessGame game, int ply, int move) throws DataAccessException {
+        if (ply <= game.getPlyCount()) {
+            return; // already part of the snapshot
+        }
+        if (ply != game.getPlyCount() + 1) {
+            throw new DataAccessException("Move log is missing ply " + (game.getPlyCount() + 1));
+        }
+        try {
+            game.makeMove(PackedMove.toChessMove(move));
+        } catch (InvalidMoveException e) {
+            throw new DataAccessException("Error replaying ply " + ply + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes a snapshot of the game and the ply it was taken at. The move log
+     * is append-only and keeps every move; readers only replay the moves
+     * after the snapshot ply.
+     */
+    private int writeGame(Connection conn, int id, ChessGame game) throws SQLException {
+        String sql = hasLegacyColumn
+                ? "UPDATE games SET gameState = ?, snapshotPly = ?, game = NULL WHERE gameID = ?"
+                : "UPDATE games SET gameState = ?, snapshotPly = ? WHERE gameID = ?";
+        try (var statement = conn.prepareStatement(sql)) {
+            statement.setBytes(1, GameCodec.encode(game));
+            statement.setInt(2, game.getPlyCount());
+            statement.setInt(3, id);
+            return statement.executeUpdate();
+        }
+    }
+
+    private ChessGame readGame(ResultSet resultSet) throws SQLException, DataAccessException {
+        byte[] encoded = resultSet.getBytes("gameState");
+        if (encoded != null) {
+            try {
+                return GameCodec.decode(encoded);
+            } catch (IllegalArgumentException e) {
+                throw new DataAccessException("Error decoding game: " + e.getMessage());
+            }
+        }
+        if (hasLegacyColumn) {
+            String json = resultSet.getString("game");
+            return json == null ? null : fromLegacyJson(json);
+        }
+        return null;
+    }
+
+    /**
+     * Reads a game stored as reflective Gson JSON, with the board as an 8x8
+     * squares array
+     */
+    private ChessGame fromLegacyJson(String json) throws DataAccessException {
+        try {
+            JsonObject object = JsonParser.parseString(json).getAsJsonObject();
+            JsonObject boardJson = object.getAsJsonObject("board");
+            if (boardJson == null) {
+                throw new DataAccessException("Error reading legacy game: no board");
+            }
+
+            JsonArray rows = boardJson.getAsJsonArray("squares");
+            if (rows == null) {
+                throw new DataAccessException("Error reading legacy game: unknown board layout");
+            }
+            ChessBoard board = new ChessBoard();
+            for (int row = 0; row < rows.size(); row++) {
+                JsonArray cols = rows.get(row).getAsJsonArray();
+                for (int col = 0; col < cols.size(); col++) {
+                    JsonElement piece = cols.get(col);
+                    if (!piece.isJsonNull()) {
+                        board.addPiece(ChessPosition.of(row + 1, col + 1), gson.fromJson(piece, ChessPiece.class));
+                    }
+                }
+            }
+            ChessGame game = new ChessGame();
+            game.setBoard(board);
+            if (object.has("currentTurn")) {
+                game.setTeamTurn(gson.fromJson(object.get("currentTurn"), ChessGame.TeamColor.class));
+            }
+            if (object.has("gameOver")) {
+                game.setGameOver(object.get("gameOver").getAsBoolean());
+            }
+            return game;
+        } catch (JsonParseException | IllegalStateException | IllegalArgumentException | ClassCastException e) {
+            throw new DataAccessException("Error reading legacy game: " + e.getMessage());
         }
     }
 }
@@ -2,13 +2,14 @@ package handler;
 
 import com.google.gson.Gson;
 import io.javalin.http.Handler;
+import serialization.GsonFactory;
 import service.ClearService;
 
 import java.util.Map;
 
 public class ClearHandler {
     private ClearService clearService;
-    private final Gson gson = new Gson();
+    private final Gson gson = GsonFactory.gson();
 
     public ClearHandler(ClearService clearService){
         this.clearService = clearService;
@@ -4,6 +4,7 @@ import com.google.gson.Gson;
 import io.javalin.http.Handler;
 import request.CreateGameRequest;
 import result.CreateGameResult;
+import serialization.GsonFactory;
 import service.CreateGameService;
 import service.ServiceException;
 
@@ -11,7 +12,7 @@ import static handler.HandlerUtils.sendError;
 
 public class CreateGameHandler {
     private CreateGameService createGameService;
-    private final Gson gson = new Gson();
+    private final Gson gson = GsonFactory.gson();
 
     public CreateGameHandler(CreateGameService createGameService) {
         this.createGameService = createGameService;
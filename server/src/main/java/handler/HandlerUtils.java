@@ -2,12 +2,13 @@ package handler;
 
 import com.google.gson.Gson;
 import io.javalin.http.Context;
+import serialization.GsonFactory;
 
 import java.util.Map;
 
 public class HandlerUtils {
 
-    private static final Gson GSON = new Gson();
+    private static final Gson GSON = GsonFactory.gson();
 
     private HandlerUtils() {
 
@@ -4,6 +4,7 @@ import com.google.gson.Gson;
 import io.javalin.http.Handler;
 import request.JoinGameRequest;
 import result.JoinGameResult;
+import serialization.GsonFactory;
 import service.JoinGameService;
 import service.ServiceException;
 
@@ -11,7 +12,7 @@ import static handler.HandlerUtils.sendError;
 
 public class JoinGameHandler {
     private JoinGameService joinGameService;
-    private final Gson gson = new Gson();
+    private final Gson gson = GsonFactory.gson();
 
     public JoinGameHandler(JoinGameService joinGameService){
         this.joinGameService = joinGameService;
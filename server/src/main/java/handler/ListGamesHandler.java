@@ -4,6 +4,7 @@ import com.google.gson.Gson;
 import io.javalin.http.Handler;
 import request.ListGamesRequest;
 import result.ListGamesResult;
+import serialization.GsonFactory;
 import service.ListGamesService;
 import service.ServiceException;
 
@@ -11,7 +12,7 @@ import static handler.HandlerUtils.sendError;
 
 public class ListGamesHandler {
     private ListGamesService listGamesService;
-    private final Gson gson = new Gson();
+    private final Gson gson = GsonFactory.gson();
 
     public ListGamesHandler(ListGamesService listGamesService){
         this.listGamesService = listGamesService;
@@ -4,6 +4,7 @@ import com.google.gson.Gson;
 import io.javalin.http.Handler;
 import request.LoginRequest;
 import result.LoginResult;
+import serialization.GsonFactory;
 import service.LoginService;
 import service.ServiceException;
 
@@ -11,7 +12,7 @@ import static handler.HandlerUtils.sendError;
 
 public class LoginHandler {
     private LoginService loginService;
-    private final Gson gson = new Gson();
+    private final Gson gson = GsonFactory.gson();
 
     public LoginHandler(LoginService loginService) {
         this.loginService = loginService;
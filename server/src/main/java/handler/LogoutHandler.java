@@ -4,6 +4,7 @@ import com.google.gson.Gson;
 import io.javalin.http.Handler;
 import request.LogoutRequest;
 import result.LogoutResult;
+import serialization.GsonFactory;
 import service.LogoutService;
 import service.ServiceException;
 
@@ -11,7 +12,7 @@ import static handler.HandlerUtils.sendError;
 
 public class LogoutHandler {
     private LogoutService logoutService;
-    private final Gson gson = new Gson();
+    private final Gson gson = GsonFactory.gson();
 
     public LogoutHandler(LogoutService logoutService){
         this.logoutService = logoutService;
@@ -3,6 +3,7 @@ package handler;
 import com.google.gson.Gson;
 import request.RegisterRequest;
 import result.RegisterResult;
+import serialization.GsonFactory;
 import service.UserService;
 import io.javalin.http.Handler;
 import service.ServiceException;
@@ -11,7 +12,7 @@ import static handler.HandlerUtils.sendError;
 
 public class UserHandler {
     private UserService userService;
-    private final Gson gson = new Gson();
+    private final Gson gson = GsonFactory.gson();
 
     public UserHandler(UserService userService){
         this.userService = userService;
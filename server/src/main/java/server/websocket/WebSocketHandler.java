@@ -9,6 +9,7 @@ import io.javalin.websocket.*;
 import model.AuthData;
 import model.GameData;
 import org.jetbrains.annotations.NotNull;
+import serialization.GsonFactory;
 import websocket.commands.UserGameCommand;
 import org.eclipse.jetty.websocket.api.Session;
 import websocket.messages.ErrorMessage;
@@ -22,7 +23,9 @@ public class WebSocketHandler implements WsConnectHandler, WsMessageHandler, WsC
     private final ConnectionManager connections = new ConnectionManager();
     private final AuthDAO authDAO;
     private final GameDAO gameDAO;
-    private final Gson gson = new Gson();
+    private final Gson gson = GsonFactory.gson();
+    // plies between full game snapshots; moves in between are only appended to the move log
+    private static final int SNAPSHOT_INTERVAL = 16;
 
     public WebSocketHandler(AuthDAO authDAO, GameDAO gameDAO) {
         this.authDAO = authDAO;
@@ -190,8 +193,6 @@ public class WebSocketHandler implements WsConnectHandler, WsMessageHandler, WsC
                 opponent = ChessGame.TeamColor.WHITE;
             }
 
-            StringBuilder extraNote = new StringBuilder();
-
             String oppositeUser;
             if (username.equals(gameData.whiteUsername())){
                 oppositeUser = gameData.blackUsername();
@@ -199,46 +200,34 @@ public class WebSocketHandler implements WsConnectHandler, WsMessageHandler, WsC
                 oppositeUser = gameData.whiteUsername();
             }
 
-            if (game.isInCheckmate(opponent)) {
-                game.setGameOver(true);
-                extraNote.append("\nGAME OVER: ").append(oppositeUser).append(" is in checkmate! ").append(username).append(" WINS!");
-                // broadcast move notification to everyone else.
-                String moveText = formatMove(command.getMove());
-                NotificationMessage note = new NotificationMessage(
-                        username + " played " + moveText + extraNote
-                );
-                String noteJson = gson.toJson(note);
-                connections.broadcast(gameID, null, noteJson);
-                return;
-
-
-            } else if (game.isInStalemate(opponent)) {
-                game.setGameOver(true);
-                extraNote.append("\nGAME OVER: Stalemate. ");
-
-                // broadcast move notification to everyone else.
-                String moveText = formatMove(command.getMove());
-                NotificationMessage note = new NotificationMessage(
-                        username + " played " + moveText + extraNote
-                );
-                String noteJson = gson.toJson(note);
-                connections.broadcast(gameID, null, noteJson);
-                return;
-
-            } else if (game.isInCheck(opponent)){
-                extraNote.append(". ").append(oppositeUser).append(" is in check.");
+            // one pass decides check, checkmate and stalemate for the opponent
+            String statusText = switch (game.evaluateStatus(opponent)) {
+                case CHECKMATE -> {
+                    game.setGameOver(true);
+                    yield "GAME OVER: " + oppositeUser + " is in checkmate! " + username + " WINS!";
+                }
+                case STALEMATE -> {
+                    game.setGameOver(true);
+                    yield "GAME OVER: Stalemate.";
+                }
+                case DRAW_BY_REPETITION -> {
+                    game.setGameOver(true);
+                    yield "GAME OVER: Draw by threefold repetition.";
+                }
+                case DRAW_BY_FIFTY_MOVES -> {
+                    game.setGameOver(true);
+                    yield "GAME OVER: Draw by the fifty-move rule.";
+                }
+                case CHECK -> oppositeUser + " is in check.";
+                case NORMAL -> null;
+            };
 
-                // broadcast move notification to everyone else.
-                String moveText = formatMove(command.getMove());
-                NotificationMessage note = new NotificationMessage(
-                        username + " played " + moveText + extraNote
-                );
-                String noteJson = gson.toJson(note);
-                connections.broadcast(gameID, null, noteJson);
-                return;
+            // record the move, and rewrite the whole game only now and then
+            int ply = game.getPlyCount();
+            gameDAO.appendMove(gameID, command.getMove(), ply);
+            if (game.isGameOver() || ply % SNAPSHOT_INTERVAL == 0) {
+                gameDAO.updateGame(gameID, game);
             }
-            // update gameboard
-            gameDAO.updateGame(gameID, game);
 
             // broadcast update to everyone
             LoadGameMessage loadMsg = new LoadGameMessage(game);
@@ -247,12 +236,16 @@ public class WebSocketHandler implements WsConnectHandler, WsMessageHandler, WsC
 
             // broadcast move notification to everyone else.
             String moveText = formatMove(command.getMove());
-            NotificationMessage note = new NotificationMessage(
-                    username + " played " + moveText + extraNote
-            );
+            NotificationMessage note = new NotificationMessage(username + " played " + moveText);
             String noteJson = gson.toJson(note);
             connections.broadcast(gameID, session, noteJson);
 
+            // tell everyone about check, checkmate or stalemate
+            if (statusText != null) {
+                NotificationMessage statusNote = new NotificationMessage(statusText);
+                connections.broadcast(gameID, null, gson.toJson(statusNote));
+            }
+
         } catch (Exception e) {
             sendError(session, "Move failed: " + e.getMessage());
         }
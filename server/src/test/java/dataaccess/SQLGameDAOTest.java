@@ -1,5 +1,9 @@
 package dataaccess;
 
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
 import model.GameData;
 import org.junit.jupiter.api.*;
 
@@ -90,4 +94,60 @@ public class SQLGameDAOTest {
         assertNull(gameDAO.getGame(game.gameID()));
 
     }
+
+    @Test
+    void updateGamePositive() throws DataAccessException, SQLException, InvalidMoveException {
+        GameData game = gameDAO.createGame("test");
+        ChessGame chessGame = game.game();
+        chessGame.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        gameDAO.updateGame(game.gameID(), chessGame);
+
+        assertEquals(chessGame, gameDAO.getGame(game.gameID()).game());
+    }
+
+    @Test
+    void appendMovePositive() throws DataAccessException, SQLException, InvalidMoveException {
+        GameData game = gameDAO.createGame("test");
+        ChessGame chessGame = game.game();
+        ChessMove move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        chessGame.makeMove(move);
+        gameDAO.appendMove(game.gameID(), move, 1);
+
+        ChessGame loaded = gameDAO.getGame(game.gameID()).game();
+        assertEquals(chessGame, loaded, "Appended moves should be replayed onto the snapshot");
+        assertEquals(1, loaded.getPlyCount());
+    }
+
+    @Test
+    void appendMoveNegativeDuplicatePly() throws DataAccessException, SQLException {
+        GameData game = gameDAO.createGame("test");
+        ChessMove move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        gameDAO.appendMove(game.gameID(), move, 1);
+
+        assertThrows(DataAccessException.class, () -> gameDAO.appendMove(game.gameID(), move, 1));
+    }
+
+    @Test
+    void listGamesReplaysOnlyMovesAfterSnapshot() throws DataAccessException, SQLException, InvalidMoveException {
+        GameData game = gameDAO.createGame("test");
+        ChessGame chessGame = game.game();
+        ChessMove first = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        ChessMove second = new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null);
+        chessGame.makeMove(first);
+        gameDAO.appendMove(game.gameID(), first, 1);
+        gameDAO.updateGame(game.gameID(), chessGame);
+        chessGame.makeMove(second);
+        gameDAO.appendMove(game.gameID(), second, 2);
+
+        // the log keeps every move after a snapshot, so ply 1 cannot be rewritten
+        assertThrows(DataAccessException.class, () -> gameDAO.appendMove(game.gameID(), first, 1));
+        ChessGame listed = gameDAO.listGames().iterator().next().game();
+        assertEquals(chessGame, listed);
+        assertEquals(2, listed.getPlyCount());
+    }
+
+    @Test
+    void updateGameNegative() {
+        assertThrows(DataAccessException.class, () -> gameDAO.updateGame(1234, new ChessGame()));
+    }
 }
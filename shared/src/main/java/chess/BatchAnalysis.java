@@ -0,0 +1,38 @@
+package chess;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Evaluates many games at once, spread over the common fork-join pool.
+ * <p>
+ * Each game is evaluated on its own copy, since evaluating fills per-game
+ * move caches that are not safe to share between threads. The same game
+ * may appear in the input more than once, and the results come back in
+ * input order however the work was split, so a batch always gives the same
+ * answer for the same input.
+ */
+public final class BatchAnalysis {
+
+    private BatchAnalysis() {
+    }
+
+    /**
+     * Evaluates the status of each game for its side to move, in parallel.
+     * The games must not be changed while the batch runs.
+     *
+     * @param games the games to evaluate
+     * @return the status of each game, in the same order as the input
+     */
+    public static List<ChessGame.GameStatus> evaluateStatuses(List<ChessGame> games) {
+        return IntStream.range(0, games.size())
+                .parallel()
+                .mapToObj(i -> evaluateStatus(games.get(i)))
+                .toList();
+    }
+
+    private static ChessGame.GameStatus evaluateStatus(ChessGame game) {
+        ChessGame copy = new ChessGame(game);
+        return copy.evaluateStatus(copy.getTeamTurn());
+    }
+}
@@ -0,0 +1,239 @@
+package chess;
+
+import java.util.SplittableRandom;
+
+/**
+ * Precomputed attack tables and square helpers for the bitboard board.
+ * <p>
+ * Squares are numbered 0-63 with a1 = 0, h1 = 7 and h8 = 63, so bit
+ * {@code (row - 1) * 8 + (col - 1)} of a bitboard stands for the square
+ * at {@code ChessPosition(row, col)}.
+ * <p>
+ * Rook and bishop attacks use magic bitboards: the blockers on a slider's
+ * rays are multiplied by a per-square magic number, and the top bits of the
+ * product index a table of precomputed attack sets. The magics are found
+ * when the class loads, with a fixed seed so every run builds the same tables.
+ */
+final class Bitboards {
+
+    static final long FILE_A = 0x0101010101010101L;
+    static final long FILE_H = FILE_A << 7;
+    static final long RANK_1 = 0xFFL;
+    static final long RANK_2 = RANK_1 << 8;
+    static final long RANK_7 = RANK_1 << 48;
+    static final long RANK_8 = RANK_1 << 56;
+
+    static final long[] KNIGHT_ATTACKS = new long[64];
+    static final long[] KING_ATTACKS = new long[64];
+    // indexed [color][square], the squares a pawn of that color attacks
+    static final long[][] PAWN_ATTACKS = new long[2][64];
+    // indexed [from][to], the squares strictly between two aligned squares, or 0 if not aligned
+    static final long[][] BETWEEN = new long[64][64];
+    // indexed [from][to], the whole rank, file or diagonal through two aligned squares, or 0 if not aligned
+    static final long[][] LINE = new long[64][64];
+
+    private static final int[][] KNIGHT_STEPS = {{2, 1}, {2, -1}, {-2, 1}, {-2, -1}, {1, 2}, {1, -2}, {-1, 2}, {-1, -2}};
+    private static final int[][] KING_STEPS = {{1, -1}, {1, 0}, {1, 1}, {0, -1}, {0, 1}, {-1, -1}, {-1, 0}, {-1, 1}};
+    private static final int[][] ROOK_DIRECTIONS = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {-1, 1}, {-1, -1}, {1, -1}};
+
+    private static final Magic[] ROOK_MAGICS = new Magic[64];
+    private static final Magic[] BISHOP_MAGICS = new Magic[64];
+
+    /**
+     * Attack lookup for one slider on one square
+     */
+    private record Magic(long mask, long magic, int shift, long[] attacks) {
+        long attacks(long occupied) {
+            return attacks[(int) (((occupied & mask) * magic) >>> shift)];
+        }
+    }
+
+    static {
+        for (int sq = 0; sq < 64; sq++) {
+            KNIGHT_ATTACKS[sq] = stepAttacks(sq, KNIGHT_STEPS);
+            KING_ATTACKS[sq] = stepAttacks(sq, KING_STEPS);
+            PAWN_ATTACKS[ChessGame.TeamColor.WHITE.ordinal()][sq] = stepAttacks(sq, new int[][]{{1, -1}, {1, 1}});
+            PAWN_ATTACKS[ChessGame.TeamColor.BLACK.ordinal()][sq] = stepAttacks(sq, new int[][]{{-1, -1}, {-1, 1}});
+        }
+        for (int sq = 0; sq < 64; sq++) {
+            fillLines(sq, ROOK_DIRECTIONS);
+            fillLines(sq, BISHOP_DIRECTIONS);
+        }
+        SplittableRandom random = new SplittableRandom(0xB17B0A4DL);
+        for (int sq = 0; sq < 64; sq++) {
+            ROOK_MAGICS[sq] = findMagic(sq, ROOK_DIRECTIONS, random);
+            BISHOP_MAGICS[sq] = findMagic(sq, BISHOP_DIRECTIONS, random);
+        }
+    }
+
+    private Bitboards() {
+    }
+
+    static int square(int row, int col) {
+        return (row - 1) * 8 + (col - 1);
+    }
+
+    static int square(ChessPosition position) {
+        return square(position.getRow(), position.getColumn());
+    }
+
+    static int row(int square) {
+        return (square >>> 3) + 1;
+    }
+
+    static int column(int square) {
+        return (square & 7) + 1;
+    }
+
+    static boolean onBoard(int row, int col) {
+        return row >= 1 && row <= 8 && col >= 1 && col <= 8;
+    }
+
+    static long bit(int square) {
+        return 1L << square;
+    }
+
+    /**
+     * @return squares a rook on the given square attacks, stopping each ray at
+     * the first occupied square (which is included)
+     */
+    static long rookAttacks(int square, long occupied) {
+        return ROOK_MAGICS[square].attacks(occupied);
+    }
+
+    /**
+     * @return squares a bishop on the given square attacks, stopping each ray at
+     * the first occupied square (which is included)
+     */
+    static long bishopAttacks(int square, long occupied) {
+        return BISHOP_MAGICS[square].attacks(occupied);
+    }
+
+    static long queenAttacks(int square, long occupied) {
+        return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+    }
+
+    /**
+     * Searches for a magic number that maps every blocker arrangement on the
+     * slider's rays to a table slot without destructive collisions.
+     */
+    private static Magic findMagic(int square, int[][] directions, SplittableRandom random) {
+        long mask = relevantBlockers(square, directions);
+        int bits = Long.bitCount(mask);
+        int shift = 64 - bits;
+
+        // every subset of the mask, with the attacks it produces
+        long[] blockers = new long[1 << bits];
+        long[] reference = new long[1 << bits];
+        long subset = 0L;
+        for (int i = 0; i < blockers.length; i++) {
+            blockers[i] = subset;
+            reference[i] = slidingAttacks(square, subset, directions);
+            subset = (subset - mask) & mask;
+        }
+
+        long[] attacks = new long[1 << bits];
+        int[] filledBy = new int[1 << bits];
+        int attempt = 0;
+        while (true) {
+            attempt++;
+            // sparse candidates are far more likely to work
+            long magic = random.nextLong() & random.nextLong() & random.nextLong();
+            if (Long.bitCount((mask * magic) & 0xFF00000000000000L) < 6) {
+                continue;
+            }
+            boolean collision = false;
+            for (int i = 0; i < blockers.length && !collision; i++) {
+                int index = (int) ((blockers[i] * magic) >>> shift);
+                if (filledBy[index] != attempt) {
+                    filledBy[index] = attempt;
+                    attacks[index] = reference[i];
+                } else if (attacks[index] != reference[i]) {
+                    collision = true;
+                }
+            }
+            if (!collision) {
+                return new Magic(mask, magic, shift, attacks);
+            }
+        }
+    }
+
+    /**
+     * @return squares on the slider's rays whose occupancy can change its
+     * attacks; the last square of each ray never blocks anything beyond it
+     */
+    private static long relevantBlockers(int square, int[][] directions) {
+        long mask = 0L;
+        for (int[] direction : directions) {
+            int row = row(square) + direction[0];
+            int col = column(square) + direction[1];
+            while (onBoard(row + direction[0], col + direction[1])) {
+                mask |= bit(square(row, col));
+                row += direction[0];
+                col += direction[1];
+            }
+        }
+        return mask;
+    }
+
+    private static long slidingAttacks(int square, long occupied, int[][] directions) {
+        long attacks = 0L;
+        for (int[] direction : directions) {
+            int row = row(square) + direction[0];
+            int col = column(square) + direction[1];
+            while (onBoard(row, col)) {
+                long target = bit(square(row, col));
+                attacks |= target;
+                if ((occupied & target) != 0) {
+                    break; // ray is blocked
+                }
+                row += direction[0];
+                col += direction[1];
+            }
+        }
+        return attacks;
+    }
+
+    private static void fillLines(int square, int[][] directions) {
+        for (int[] direction : directions) {
+            long between = 0L;
+            // the full line is this ray, the opposite ray and the square itself
+            long line = bit(square) | ray(square, direction[0], direction[1]) | ray(square, -direction[0], -direction[1]);
+            int row = row(square) + direction[0];
+            int col = column(square) + direction[1];
+            while (onBoard(row, col)) {
+                int target = square(row, col);
+                BETWEEN[square][target] = between;
+                LINE[square][target] = line;
+                between |= bit(target);
+                row += direction[0];
+                col += direction[1];
+            }
+        }
+    }
+
+    private static long ray(int square, int rowStep, int colStep) {
+        long ray = 0L;
+        int row = row(square) + rowStep;
+        int col = column(square) + colStep;
+        while (onBoard(row, col)) {
+            ray |= bit(square(row, col));
+            row += rowStep;
+            col += colStep;
+        }
+        return ray;
+    }
+
+    private static long stepAttacks(int square, int[][] steps) {
+        long attacks = 0L;
+        for (int[] step : steps) {
+            int row = row(square) + step[0];
+            int col = column(square) + step[1];
+            if (onBoard(row, col)) {
+                attacks |= bit(square(row, col));
+            }
+        }
+        return attacks;
+    }
+}
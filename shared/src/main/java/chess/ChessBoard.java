@@ -1,7 +1,8 @@
 package chess;
 
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Objects;
+import java.util.List;
 
 /**
  * A chessboard that can hold and rearrange chess pieces.
@@ -11,9 +12,37 @@ import java.util.Objects;
  */
 public class ChessBoard {
 
-    ChessPiece[][] squares = new ChessPiece[8][8];
+    // one bitboard per color and piece type, indexed by pieceIndex(color, type)
+    long[] pieces = new long[12];
+    // every square occupied by a piece of the given color, indexed by TeamColor ordinal
+    long[] colorOccupancy = new long[2];
+    long occupied;
+    // Zobrist key of the piece placement, updated with every square change
+    long zobristKey;
+    // white's material minus black's, and the same plus piece-square bonuses, updated with every square change
+    int materialBalance;
+    int evaluation;
+
+    private static final ChessPiece.PieceType[] PIECE_TYPES = ChessPiece.PieceType.values();
+    private static final int UNDO_CASTLE = 1 << 20;
+    private static final int UNDO_EN_PASSANT = 1 << 21;
+
     public ChessBoard() {
-        
+
+    }
+
+    /**
+     * Creates a copy of another board
+     *
+     * @param other the board to copy
+     */
+    public ChessBoard(ChessBoard other) {
+        pieces = other.pieces.clone();
+        colorOccupancy = other.colorOccupancy.clone();
+        occupied = other.occupied;
+        zobristKey = other.zobristKey;
+        materialBalance = other.materialBalance;
+        evaluation = other.evaluation;
     }
 
     /**
@@ -21,9 +50,14 @@ public class ChessBoard {
      *
      * @param position where to add the piece to
      * @param piece    the piece to add
+     * @throws IllegalArgumentException if the position is off the board
      */
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        squares[position.getRow()-1][position.getColumn()-1] = piece;
+        int square = checkedSquare(position);
+        clearSquare(square);
+        if (piece != null) {
+            setSquare(square, pieceIndex(piece.getTeamColor(), piece.getPieceType()));
+        }
     }
 
     /**
@@ -32,10 +66,22 @@ public class ChessBoard {
      * @param position The position to get the piece from
      * @return Either the piece at the position, or null if no piece is at that
      * position
+     * @throws IllegalArgumentException if the position is off the board
      */
     public ChessPiece getPiece(ChessPosition position) {
+        int index = pieceIndexAt(checkedSquare(position));
+        if (index < 0) {
+            return null;
+        }
+        return ChessPiece.ofIndex(index);
+    }
 
-        return squares[position.getRow() - 1][position.getColumn() - 1];
+    // square numbers wrap around off the board, so public entry points check before touching the bitboards
+    private static int checkedSquare(ChessPosition position) {
+        if (!Bitboards.onBoard(position.getRow(), position.getColumn())) {
+            throw new IllegalArgumentException("Position is off the board: " + position);
+        }
+        return Bitboards.square(position);
     }
     /**
      * Sets the board to the default starting board
@@ -43,20 +89,20 @@ public class ChessBoard {
      */
     public void resetBoard() {
         // empty all squares
-        for (int row = 0; row < 8; row++){
-            for (int col = 0; col < 8; col++){
-                squares[row][col] = null;
-
-            }
-        }
+        Arrays.fill(pieces, 0L);
+        Arrays.fill(colorOccupancy, 0L);
+        occupied = 0L;
+        zobristKey = 0L;
+        materialBalance = 0;
+        evaluation = 0;
 
         // Add white pawns
         for (int i = 1; i <= 8; i++){
-            addPiece(new ChessPosition(2, i), new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+            addPiece(ChessPosition.of(2, i), ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
         }
         // add black pawns
         for (int i = 1; i <= 8; i++){
-            addPiece(new ChessPosition(7, i),new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+            addPiece(ChessPosition.of(7, i), ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
         }
         ChessPiece.PieceType[] backRank = {
                 ChessPiece.PieceType.ROOK,
@@ -70,19 +116,452 @@ public class ChessBoard {
         };
         // add white back rank
         for (int i = 1; i <= 8; i++){
-            addPiece(new ChessPosition(1, i),new ChessPiece(ChessGame.TeamColor.WHITE, backRank[i-1]));
+            addPiece(ChessPosition.of(1, i), ChessPiece.of(ChessGame.TeamColor.WHITE, backRank[i-1]));
         }
         // add black back rank
         for (int i = 1; i <= 8; i++){
-            addPiece(new ChessPosition(8, i),new ChessPiece(ChessGame.TeamColor.BLACK, backRank[i-1]));
+            addPiece(ChessPosition.of(8, i), ChessPiece.of(ChessGame.TeamColor.BLACK, backRank[i-1]));
+        }
+    }
+
+    /**
+     * Applies a move to this board in place. Pass the returned undo record to
+     * {@link #unmakeMove(int)} to restore the board to how it was before.
+     * The move is not checked for legality. A king moving two squares castles
+     * and a pawn moving diagonally onto an empty square captures en passant.
+     *
+     * @param move the move to apply
+     * @return undo record for the move
+     */
+    public int makeMove(ChessMove move) {
+        int packed = PackedMove.of(move);
+        int from = PackedMove.from(packed);
+        int to = PackedMove.to(packed);
+        int moved = pieceIndexAt(from);
+        if (moved >= 0 && typeOf(moved) == ChessPiece.PieceType.KING && Math.abs(to - from) == 2) {
+            packed |= PackedMove.CASTLE;
+        } else if (moved >= 0 && typeOf(moved) == ChessPiece.PieceType.PAWN
+                && ((from ^ to) & 7) != 0 && (occupied & Bitboards.bit(to)) == 0) {
+            packed |= PackedMove.EN_PASSANT;
+        }
+        return makeMove(packed);
+    }
+
+    /**
+     * Applies a packed move (see {@link PackedMove}) to this board in place.
+     * Pass the returned undo record to {@link #unmakeMove(int)} to restore
+     * the board. The move is not checked for legality.
+     *
+     * @param move the packed move to apply
+     * @return undo record for the move
+     */
+    public int makeMove(int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        int promotionType = PackedMove.promotionType(move);
+        int moved = pieceIndexAt(from);
+        boolean enPassant = PackedMove.hasFlag(move, PackedMove.EN_PASSANT);
+        // an en passant capture takes the pawn beside the start square, not on the end square
+        int capturedSquare = enPassant ? (from & ~7) | (to & 7) : to;
+        int captured = pieceIndexAt(capturedSquare);
+
+        clearSquare(from);
+        if (captured >= 0) {
+            clearSquare(capturedSquare);
+        }
+        int placed = promotionType < 0 ? moved : (moved / 6) * 6 + promotionType;
+        setSquare(to, placed);
+        boolean castle = PackedMove.hasFlag(move, PackedMove.CASTLE);
+        if (castle) {
+            moveCastlingRook(to, false);
+        }
+
+        // undo record layout: from (6 bits) | to (6 bits) | moved piece (4 bits) | captured piece + 1 (4 bits)
+        // | castle (1 bit) | en passant (1 bit)
+        return from | (to << 6) | (moved << 12) | ((captured + 1) << 16)
+                | (castle ? UNDO_CASTLE : 0) | (enPassant ? UNDO_EN_PASSANT : 0);
+    }
+
+    /**
+     * Reverts a move applied by one of the makeMove methods. Moves must be
+     * undone in the reverse order they were made.
+     *
+     * @param undo the undo record returned when the move was made
+     */
+    public void unmakeMove(int undo) {
+        int from = undo & 0x3F;
+        int to = (undo >>> 6) & 0x3F;
+        int moved = (undo >>> 12) & 0xF;
+        int captured = ((undo >>> 16) & 0xF) - 1;
+
+        clearSquare(to);
+        setSquare(from, moved);
+        if (captured >= 0) {
+            setSquare((undo & UNDO_EN_PASSANT) != 0 ? (from & ~7) | (to & 7) : to, captured);
+        }
+        if ((undo & UNDO_CASTLE) != 0) {
+            moveCastlingRook(to, true);
+        }
+    }
+
+    /**
+     * Moves the rook of a castling move whose king ended on kingTo, or moves
+     * it back to its corner when undoing
+     */
+    private void moveCastlingRook(int kingTo, boolean undo) {
+        boolean kingside = (kingTo & 7) == 6;
+        int corner = kingside ? kingTo + 1 : kingTo - 2;
+        int inside = kingside ? kingTo - 1 : kingTo + 1;
+        int rookFrom = undo ? inside : corner;
+        int rookTo = undo ? corner : inside;
+        int rook = pieceIndexAt(rookFrom);
+        if (rook >= 0) {
+            clearSquare(rookFrom);
+            setSquare(rookTo, rook);
+        }
+    }
+
+    /**
+     * Gets the Zobrist key of the pieces on this board. It is updated as pieces
+     * are added, removed and moved, so reading it is O(1). Side to move is not
+     * part of the board; see {@link ChessGame#getZobristKey()}.
+     *
+     * @return 64-bit hash of the piece placement
+     */
+    public long getZobristKey() {
+        return zobristKey;
+    }
+
+    /**
+     * Gets white's material minus black's, in centipawns. Like the Zobrist
+     * key it is updated as pieces are added, removed and moved, so reading it
+     * is O(1).
+     *
+     * @return the material balance from white's point of view
+     */
+    public int getMaterialBalance() {
+        return materialBalance;
+    }
+
+    /**
+     * Gets a static evaluation of the board in centipawns: the material
+     * balance plus bonuses for where each piece stands. It is kept up to date
+     * incrementally, so reading it is O(1).
+     *
+     * @return the evaluation from white's point of view
+     */
+    public int getEvaluation() {
+        return evaluation;
+    }
+
+    /**
+     * Gets the square of a team's king. The king bitboard is kept up to date by
+     * every board change, so this is a single bit scan.
+     *
+     * @param teamColor which team's king to find
+     * @return the king position, or null if that team has no king on the board
+     */
+    public ChessPosition getKingPosition(ChessGame.TeamColor teamColor) {
+        int square = kingSquare(teamColor);
+        return square < 0 ? null : ChessPosition.ofSquare(square);
+    }
+
+    /**
+     * Gets the position of every piece belonging to a team, visiting only
+     * occupied squares
+     *
+     * @param teamColor which team's pieces to list
+     * @return positions of the team's pieces
+     */
+    public List<ChessPosition> getTeamPositions(ChessGame.TeamColor teamColor) {
+        long teamPieces = occupancy(teamColor);
+        List<ChessPosition> positions = new ArrayList<>(Long.bitCount(teamPieces));
+        while (teamPieces != 0) {
+            int square = Long.numberOfTrailingZeros(teamPieces);
+            teamPieces &= teamPieces - 1;
+            positions.add(ChessPosition.ofSquare(square));
+        }
+        return positions;
+    }
+
+    /**
+     * Counts a team's pieces of one type with a single popcount
+     *
+     * @param teamColor which team's pieces to count
+     * @param type      which piece type to count
+     * @return number of such pieces on the board
+     */
+    public int pieceCount(ChessGame.TeamColor teamColor, ChessPiece.PieceType type) {
+        return Long.bitCount(bitboard(teamColor, type));
+    }
+
+    /**
+     * Appends the packed pseudo-legal moves of every piece of a team to a move
+     * list, without checking whether a move leaves the king in danger.
+     *
+     * @param teamColor which team's moves to generate
+     * @param moves     the list to append to
+     */
+    public void generatePseudoLegalMoves(ChessGame.TeamColor teamColor, MoveList moves) {
+        long teamPieces = occupancy(teamColor);
+        while (teamPieces != 0) {
+            int square = Long.numberOfTrailingZeros(teamPieces);
+            teamPieces &= teamPieces - 1;
+            ChessPiece.generateMoves(this, square, pieceIndexAt(square), moves);
         }
     }
 
+    /**
+     * @return the king's square index, or -1 if that team has no king
+     */
+    int kingSquare(ChessGame.TeamColor teamColor) {
+        long king = bitboard(teamColor, ChessPiece.PieceType.KING);
+        return king == 0 ? -1 : Long.numberOfTrailingZeros(king);
+    }
+
+    static int pieceIndex(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+
+    static ChessGame.TeamColor colorOf(int pieceIndex) {
+        return pieceIndex < 6 ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+    }
+
+    static ChessPiece.PieceType typeOf(int pieceIndex) {
+        return PIECE_TYPES[pieceIndex % 6];
+    }
+
+    /**
+     * @return the bitboard of every piece of the given color and type
+     */
+    long bitboard(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return pieces[pieceIndex(color, type)];
+    }
+
+    long occupancy(ChessGame.TeamColor color) {
+        return colorOccupancy[color.ordinal()];
+    }
+
+    long occupied() {
+        return occupied;
+    }
+
+    /**
+     * @return the piece index on the square, or -1 if the square is empty
+     */
+    int pieceIndexAt(int square) {
+        long mask = Bitboards.bit(square);
+        if ((occupied & mask) == 0) {
+            return -1;
+        }
+        int first = (colorOccupancy[0] & mask) != 0 ? 0 : 6;
+        for (int index = first; index < first + 6; index++) {
+            if ((pieces[index] & mask) != 0) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    void setSquare(int square, int pieceIndex) {
+        long mask = Bitboards.bit(square);
+        pieces[pieceIndex] |= mask;
+        colorOccupancy[pieceIndex / 6] |= mask;
+        occupied |= mask;
+        zobristKey ^= Zobrist.PIECE_SQUARE[pieceIndex][square];
+        materialBalance += PieceSquareTables.MATERIAL[pieceIndex];
+        evaluation += PieceSquareTables.SCORES[pieceIndex][square];
+    }
+
+    void clearSquare(int square) {
+        int index = pieceIndexAt(square);
+        if (index < 0) {
+            return;
+        }
+        long mask = ~Bitboards.bit(square);
+        pieces[index] &= mask;
+        colorOccupancy[index / 6] &= mask;
+        occupied &= mask;
+        zobristKey ^= Zobrist.PIECE_SQUARE[index][square];
+        materialBalance -= PieceSquareTables.MATERIAL[index];
+        evaluation -= PieceSquareTables.SCORES[index][square];
+    }
+
+    /**
+     * Determines if a square is attacked by any piece of the given color
+     *
+     * @param position the square to test
+     * @param byColor  the attacking team
+     * @return True if a piece of byColor attacks the square
+     * @throws IllegalArgumentException if the position is off the board
+     */
+    public boolean isSquareAttacked(ChessPosition position, ChessGame.TeamColor byColor) {
+        return isSquareAttacked(checkedSquare(position), byColor);
+    }
+
+    boolean isSquareAttacked(int square, ChessGame.TeamColor byColor) {
+        return isSquareAttacked(square, byColor, occupied);
+    }
+
+    /**
+     * Tests for attackers as if the board had the given occupancy, so a piece
+     * can be treated as already gone, e.g. a king stepping away from a slider.
+     * Probes outward from the target square and stops at the first attacker.
+     */
+    boolean isSquareAttacked(int square, ChessGame.TeamColor byColor, long occupied) {
+        int color = byColor.ordinal();
+        int base = color * 6;
+
+        // a pawn attacks this square if it sits where an enemy pawn on this square would attack
+        if ((Bitboards.PAWN_ATTACKS[1 - color][square] & pieces[base + ChessPiece.PieceType.PAWN.ordinal()]) != 0) {
+            return true;
+        }
+        if ((Bitboards.KNIGHT_ATTACKS[square] & pieces[base + ChessPiece.PieceType.KNIGHT.ordinal()]) != 0) {
+            return true;
+        }
+        if ((Bitboards.KING_ATTACKS[square] & pieces[base + ChessPiece.PieceType.KING.ordinal()]) != 0) {
+            return true;
+        }
+        long queens = pieces[base + ChessPiece.PieceType.QUEEN.ordinal()];
+        long straight = pieces[base + ChessPiece.PieceType.ROOK.ordinal()] | queens;
+        if (straight != 0 && (Bitboards.rookAttacks(square, occupied) & straight) != 0) {
+            return true;
+        }
+        long diagonal = pieces[base + ChessPiece.PieceType.BISHOP.ordinal()] | queens;
+        return diagonal != 0 && (Bitboards.bishopAttacks(square, occupied) & diagonal) != 0;
+    }
+
+    /**
+     * @return bitboard of every piece of byColor that attacks the square
+     */
+    long attackersTo(int square, ChessGame.TeamColor byColor) {
+        int color = byColor.ordinal();
+        int base = color * 6;
+        long queens = pieces[base + ChessPiece.PieceType.QUEEN.ordinal()];
+        return (Bitboards.PAWN_ATTACKS[1 - color][square] & pieces[base + ChessPiece.PieceType.PAWN.ordinal()])
+                | (Bitboards.KNIGHT_ATTACKS[square] & pieces[base + ChessPiece.PieceType.KNIGHT.ordinal()])
+                | (Bitboards.KING_ATTACKS[square] & pieces[base + ChessPiece.PieceType.KING.ordinal()])
+                | (Bitboards.rookAttacks(square, occupied) & (pieces[base + ChessPiece.PieceType.ROOK.ordinal()] | queens))
+                | (Bitboards.bishopAttacks(square, occupied) & (pieces[base + ChessPiece.PieceType.BISHOP.ordinal()] | queens));
+    }
+
+    /**
+     * Writes the piece placement field of a FEN string: ranks 8 to 1 separated
+     * by '/', white pieces in upper case, runs of empty squares as digits
+     *
+     * @return the board's FEN piece placement
+     */
+    public String toFen() {
+        StringBuilder builder = new StringBuilder(72);
+        appendFen(builder);
+        return builder.toString();
+    }
+
+    void appendFen(StringBuilder builder) {
+        for (int row = 8; row >= 1; row--) {
+            int empty = 0;
+            for (int col = 1; col <= 8; col++) {
+                int index = pieceIndexAt(Bitboards.square(row, col));
+                if (index < 0) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    builder.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                builder.append(pieceChar(index));
+            }
+            if (empty > 0) {
+                builder.append((char) ('0' + empty));
+            }
+            if (row > 1) {
+                builder.append('/');
+            }
+        }
+    }
+
+    /**
+     * Reads a board from the piece placement field of a FEN string
+     *
+     * @param placement FEN piece placement, e.g. "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR"
+     * @return the board
+     * @throws IllegalArgumentException if the placement is malformed
+     */
+    public static ChessBoard fromFen(String placement) {
+        return fromFen(placement, 0, placement.length());
+    }
+
+    static ChessBoard fromFen(String fen, int start, int end) {
+        ChessBoard board = new ChessBoard();
+        int row = 8;
+        int col = 1;
+        for (int i = start; i < end; i++) {
+            char c = fen.charAt(i);
+            if (c == '/') {
+                if (col != 9 || row == 1) {
+                    throw new IllegalArgumentException("Bad FEN rank " + row + ": " + fen.substring(start, end));
+                }
+                row--;
+                col = 1;
+            } else if (c >= '1' && c <= '8') {
+                col += c - '0';
+            } else {
+                int index = pieceIndexOf(c);
+                if (index < 0 || col > 8) {
+                    throw new IllegalArgumentException("Bad FEN character '" + c + "' in " + fen.substring(start, end));
+                }
+                board.setSquare(Bitboards.square(row, col), index);
+                col++;
+            }
+            if (col > 9) {
+                throw new IllegalArgumentException("Bad FEN rank " + row + ": " + fen.substring(start, end));
+            }
+        }
+        if (row != 1 || col != 9) {
+            throw new IllegalArgumentException("FEN placement should have 8 full ranks: " + fen.substring(start, end));
+        }
+        return board;
+    }
+
     @Override
     public String toString() {
-        return "ChessBoard{" +
-                "squares=" + Arrays.toString(squares) +
-                '}';
+        StringBuilder builder = new StringBuilder();
+        for (int row = 8; row >= 1; row--) {
+            builder.append('|');
+            for (int col = 1; col <= 8; col++) {
+                int index = pieceIndexAt(Bitboards.square(row, col));
+                builder.append(index < 0 ? ' ' : pieceChar(index)).append('|');
+            }
+            builder.append('\n');
+        }
+        return builder.toString();
+    }
+
+    private static char pieceChar(int pieceIndex) {
+        char c = switch (typeOf(pieceIndex)) {
+            case KING -> 'k';
+            case QUEEN -> 'q';
+            case BISHOP -> 'b';
+            case KNIGHT -> 'n';
+            case ROOK -> 'r';
+            case PAWN -> 'p';
+        };
+        return colorOf(pieceIndex) == ChessGame.TeamColor.WHITE ? Character.toUpperCase(c) : c;
+    }
+
+    private static int pieceIndexOf(char c) {
+        ChessGame.TeamColor color = Character.isUpperCase(c) ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+        ChessPiece.PieceType type = switch (Character.toLowerCase(c)) {
+            case 'k' -> ChessPiece.PieceType.KING;
+            case 'q' -> ChessPiece.PieceType.QUEEN;
+            case 'b' -> ChessPiece.PieceType.BISHOP;
+            case 'n' -> ChessPiece.PieceType.KNIGHT;
+            case 'r' -> ChessPiece.PieceType.ROOK;
+            case 'p' -> ChessPiece.PieceType.PAWN;
+            default -> null;
+        };
+        return type == null ? -1 : pieceIndex(color, type);
     }
 
     @Override
@@ -91,11 +570,11 @@ public class ChessBoard {
             return false;
         }
         ChessBoard that = (ChessBoard) o;
-        return Objects.deepEquals(squares, that.squares);
+        return Arrays.equals(pieces, that.pieces);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(squares);
+        return Long.hashCode(zobristKey);
     }
 }
@@ -10,16 +10,72 @@ import java.util.*;
  */
 public class ChessGame {
 
+    // castling rights bits of the position state
+    static final int WHITE_KINGSIDE = 1;
+    static final int WHITE_QUEENSIDE = 1 << 1;
+    static final int BLACK_KINGSIDE = 1 << 2;
+    static final int BLACK_QUEENSIDE = 1 << 3;
+    static final int CASTLING_RIGHTS = 0xF;
+    private static final int EN_PASSANT_SHIFT = 4;
+    // FEN letter of each castling rights bit, lowest bit first
+    private static final String CASTLING_CHARS = "KQkq";
+    private static final int FEN_FIELDS = 6;
+
+    // indexed by square, the castling rights kept when a move starts or ends there
+    private static final int[] CASTLING_KEPT = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_KEPT, CASTLING_RIGHTS);
+        CASTLING_KEPT[0] &= ~WHITE_QUEENSIDE;
+        CASTLING_KEPT[7] &= ~WHITE_KINGSIDE;
+        CASTLING_KEPT[4] &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLING_KEPT[56] &= ~BLACK_QUEENSIDE;
+        CASTLING_KEPT[63] &= ~BLACK_KINGSIDE;
+        CASTLING_KEPT[60] &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+    }
+
     private TeamColor currentTurn;
     private ChessBoard board;
     private  boolean gameOver = false;
-
+    // castling rights in bits 0-3, en passant file + 1 in bits 4-7 (0 when no pawn can be taken en passant)
+    private int positionState;
+    // packed moves made through makeMove, oldest first
+    private int[] moveLog = new int[32];
+    private int loggedMoves;
+    // plies played before the first logged move, e.g. when restored from a snapshot
+    private int startPly;
+    // plies since the last pawn move or capture, for the fifty-move rule
+    private int halfmoveClock;
+    // occurrences of each position since the last pawn move or capture
+    private RepetitionTable repetitions = new RepetitionTable();
+    // scratch buffer for move generation, not part of the game state
+    private transient MoveList moveBuffer;
+    // legal moves of recently seen positions, not part of the game state
+    private transient LegalMoveCache legalMoveCache;
 
 
     public ChessGame() {
         board = new ChessBoard(); // make a board
         board.resetBoard(); // set up a new board
         currentTurn = TeamColor.WHITE; // game starts on White team
+        positionState = CASTLING_RIGHTS;
+    }
+
+    /**
+     * Creates a copy of another game that can be changed independently
+     *
+     * @param other the game to copy
+     */
+    public ChessGame(ChessGame other) {
+        board = new ChessBoard(other.board);
+        currentTurn = other.currentTurn;
+        gameOver = other.gameOver;
+        positionState = other.positionState;
+        moveLog = other.moveLog.clone();
+        loggedMoves = other.loggedMoves;
+        startPly = other.startPly;
+        halfmoveClock = other.halfmoveClock;
+        repetitions = new RepetitionTable(other.repetitions);
     }
 
     /**
@@ -36,6 +92,8 @@ public class ChessGame {
      */
     public void setTeamTurn(TeamColor team) {
         currentTurn = team; // updates currentTurn
+        repetitions.clear(); // a different side to move is a different position
+        positionState &= CASTLING_RIGHTS; // only the side that just moved could be taken en passant
     }
 
     /**
@@ -46,6 +104,18 @@ public class ChessGame {
         BLACK
     }
 
+    /**
+     * Enum identifying the state of a team's position
+     */
+    public enum GameStatus {
+        NORMAL,
+        CHECK,
+        CHECKMATE,
+        STALEMATE,
+        DRAW_BY_REPETITION,
+        DRAW_BY_FIFTY_MOVES
+    }
+
     /**
      * Gets a valid moves for a piece at the given location
      *
@@ -58,26 +128,113 @@ public class ChessGame {
         if (piece == null) {
             return Collections.emptyList();
         }
-        Collection<ChessMove> candidateMoves = piece.pieceMoves(board, startPosition);
+        int from = Bitboards.square(startPosition);
         Collection<ChessMove> legalMoves = new ArrayList<>();
+        for (int move : cachedLegalMoves(piece.getTeamColor())) {
+            if (PackedMove.from(move) == from) {
+                legalMoves.add(PackedMove.toChessMove(move));
+            }
+        }
+        return legalMoves;
+    }
 
-        for (ChessMove move : candidateMoves) {
-            ChessBoard copyBoard = copyBoard(board);
-            applyMove(copyBoard, move);
+    /**
+     * Looks up the legal moves of a team in this position, generating and
+     * caching them on a miss. Repeat queries for the same position, such as
+     * makeMove validating after a highlight request, cost one hash lookup.
+     */
+    private int[] cachedLegalMoves(TeamColor teamColor) {
+        long key = positionKey(teamColor);
+        if (legalMoveCache == null) {
+            legalMoveCache = new LegalMoveCache(LegalMoveCache.DEFAULT_CAPACITY);
+        }
+        int[] moves = legalMoveCache.get(key);
+        if (moves == null) {
+            MoveList generated = moveBuffer();
+            generateLegalMoves(teamColor, generated);
+            moves = generated.toArray();
+            legalMoveCache.put(key, moves);
+        }
+        return moves;
+    }
 
-            // check if move puts
-            ChessBoard originalBoard = board;
-            board = copyBoard;
-            boolean safe = !isInCheck(piece.getTeamColor());
-            board = originalBoard;
+    /**
+     * Forgets the cached legal moves, so the next query generates them again.
+     * Play never needs this; it lets benchmarks time move generation on one
+     * reused game.
+     */
+    public void clearLegalMoveCache() {
+        if (legalMoveCache != null) {
+            legalMoveCache.clear();
+        }
+    }
 
-            if (safe) {
-                legalMoves.add(move);
-            }
+    /**
+     * Gets every legal move of a team in one generation pass. The pin and check
+     * analysis runs once for the whole side instead of once per piece, as it
+     * would when calling validMoves on each occupied square.
+     *
+     * @param teamColor which team's moves to get
+     * @return all legal moves of the team, empty if it has none
+     */
+    public Collection<ChessMove> allValidMoves(TeamColor teamColor) {
+        int[] moves = cachedLegalMoves(teamColor);
+        Collection<ChessMove> legalMoves = new ArrayList<>(moves.length);
+        for (int move : moves) {
+            legalMoves.add(PackedMove.toChessMove(move));
         }
         return legalMoves;
     }
 
+    /**
+     * Gets every legal move of a team in one generation pass, grouped by the
+     * square each move starts from. Pieces without a legal move are left out.
+     *
+     * @param teamColor which team's moves to get
+     * @return legal moves keyed by start position
+     */
+    public Map<ChessPosition, Collection<ChessMove>> allValidMovesByPosition(TeamColor teamColor) {
+        Map<ChessPosition, Collection<ChessMove>> movesByPosition = new LinkedHashMap<>();
+        for (int packed : cachedLegalMoves(teamColor)) {
+            ChessMove move = PackedMove.toChessMove(packed);
+            movesByPosition.computeIfAbsent(move.getStartPosition(), start -> new ArrayList<>()).add(move);
+        }
+        return movesByPosition;
+    }
+
+    /**
+     * Appends the packed legal moves (see {@link PackedMove}) of every piece of
+     * a team to a move list. Pins and checks are worked out once for the
+     * position, so no move has to be tried on the board to see whether it
+     * leaves the king in danger.
+     *
+     * @param teamColor which team's moves to generate
+     * @param moves     the list to append to
+     */
+    public void generateLegalMoves(TeamColor teamColor, MoveList moves) {
+        LegalMoveGenerator.generate(board, teamColor, positionState & CASTLING_RIGHTS, enPassantSquare(teamColor),
+                ~0L, moves);
+    }
+
+    /**
+     * @return the square a pawn of teamColor may capture en passant onto, or -1
+     */
+    private int enPassantSquare(TeamColor teamColor) {
+        int file = (positionState >>> EN_PASSANT_SHIFT) - 1;
+        if (file < 0 || teamColor != currentTurn) {
+            return -1;
+        }
+        return teamColor == TeamColor.WHITE ? 40 + file : 16 + file;
+    }
+
+    private MoveList moveBuffer() {
+        if (moveBuffer == null) {
+            moveBuffer = new MoveList();
+        }
+        moveBuffer.clear();
+        return moveBuffer;
+    }
+
     /**
      * Makes a move in a chess game
      *
@@ -95,15 +252,140 @@ public class ChessGame {
             System.out.println("invalid move");
             throw new InvalidMoveException("Invalid Move");
         }
-        Collection<ChessMove> legalMoves = validMoves(move.getStartPosition());
-        if (!legalMoves.contains(move)){
+        int packed = findLegalMove(PackedMove.of(move));
+        if (packed == PackedMove.NONE) {
             throw new InvalidMoveException("Move is not legal");
         }
 
-        applyMove(board, move);
+        if (repetitions.isEmpty()) {
+            repetitions.increment(getZobristKey()); // the position play started from
+        }
+        boolean irreversible = piece.getPieceType() == ChessPiece.PieceType.PAWN
+                || PackedMove.hasFlag(packed, PackedMove.CAPTURE);
+
+        playMove(packed);
+        logMove(packed);
 
+        if (irreversible) {
+            // earlier positions can never occur again
+            halfmoveClock = 0;
+            repetitions.clear();
+        } else {
+            halfmoveClock++;
+        }
+        repetitions.increment(getZobristKey());
+    }
+
+    /**
+     * @return the generated legal move, with its flags, that has the same squares
+     * and promotion as the given one, or {@link PackedMove#NONE}
+     */
+    private int findLegalMove(int move) {
+        for (int legal : cachedLegalMoves(currentTurn)) {
+            if (PackedMove.withoutFlags(legal) == move) {
+                return legal;
+            }
+        }
+        return PackedMove.NONE;
+    }
+
+    /**
+     * Applies a packed move for the side to move, updates castling and en
+     * passant state and passes the turn
+     *
+     * @return the board's undo record
+     */
+    private int playMove(int move) {
+        int from = PackedMove.from(move);
+        int to = PackedMove.to(move);
+        int undo = board.makeMove(move);
+
+        int state = positionState & CASTLING_KEPT[from] & CASTLING_KEPT[to];
+        if (PackedMove.hasFlag(move, PackedMove.DOUBLE_PUSH)) {
+            // only recorded when an enemy pawn is there to take it, so equal positions keep equal keys
+            if (canCaptureEnPassant((from + to) >>> 1, currentTurn)) {
+                state |= ((to & 7) + 1) << EN_PASSANT_SHIFT;
+            }
+        }
+        positionState = state;
         changeTurn();
+        return undo;
+    }
+
+    /**
+     * @param passed the square a pawn of pusher just passed over with a double push
+     * @return true if an enemy pawn stands where it can capture onto that square
+     */
+    private boolean canCaptureEnPassant(int passed, TeamColor pusher) {
+        return (Bitboards.PAWN_ATTACKS[pusher.ordinal()][passed]
+                & board.bitboard(opponent(pusher), ChessPiece.PieceType.PAWN)) != 0;
+    }
+
+    private void logMove(int move) {
+        if (loggedMoves == moveLog.length) {
+            moveLog = Arrays.copyOf(moveLog, loggedMoves * 2);
+        }
+        moveLog[loggedMoves++] = move;
+    }
+
+    /**
+     * @return number of plies played in this game, including any played
+     * before the earliest move in {@link #getMoveHistory()}
+     */
+    public int getPlyCount() {
+        return startPly + loggedMoves;
+    }
 
+    /**
+     * Gets the moves made through makeMove, oldest first. A game restored from
+     * a snapshot only knows the moves made since; the first one listed is ply
+     * {@code getPlyCount() - getMoveHistory().size() + 1}.
+     *
+     * @return the logged moves
+     */
+    public List<ChessMove> getMoveHistory() {
+        List<ChessMove> history = new ArrayList<>(loggedMoves);
+        for (int i = 0; i < loggedMoves; i++) {
+            history.add(PackedMove.toChessMove(moveLog[i]));
+        }
+        return history;
+    }
+
+    /**
+     * Clears the move log and records that the current position was reached
+     * after the given number of plies
+     */
+    void restartLogAt(int ply) {
+        startPly = ply;
+        loggedMoves = 0;
+    }
+
+    /**
+     * Applies a packed move (see {@link PackedMove}) for the side to move and
+     * passes the turn, without checking that the move is legal. Pass the
+     * returned undo record to {@link #unmakeMove(long)} to take it back.
+     * Intended for search and perft, which generate their own moves.
+     *
+     * @param move the packed move to apply
+     * @return undo record for the move
+     */
+    public long makeMoveUnchecked(int move) {
+        long state = positionState;
+        int boardUndo = playMove(move);
+        // the position state before the move in the high half, the board's record in the low half
+        return (state << 32) | (boardUndo & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Reverts a move applied by {@link #makeMoveUnchecked(int)}. Moves must be
+     * undone in the reverse order they were made.
+     *
+     * @param undo the undo record returned when the move was made
+     */
+    public void unmakeMove(long undo) {
+        changeTurn();
+        board.unmakeMove((int) undo);
+        positionState = (int) (undo >>> 32);
     }
 
     /**
@@ -113,34 +395,26 @@ public class ChessGame {
      * @return True if the specified team is in check
      */
     public boolean isInCheck(TeamColor teamColor) {
-        ChessPosition kingPosition = findKing(teamColor, board);
-
-        // scan board
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++){
-                ChessPosition position = new ChessPosition(row, col);
-                ChessPiece piece = board.getPiece(position);
-
-                // check every enemy piece
-                if (piece != null && piece.getTeamColor() != teamColor) {
-                    Collection<ChessMove> enemyMoves = piece.pieceMoves(board, position);
-                    //check every enemy piece's potential moves
-                    if(canAttackKing(enemyMoves, kingPosition)){
-                        return true;
-                    }
-                }
-            }
+        int kingSquare = board.kingSquare(teamColor);
+        if (kingSquare < 0) {
+            return false; // no king on the board
         }
-        return false; // king is safe
+        return board.isSquareAttacked(kingSquare, opponent(teamColor));
     }
 
-    private static boolean canAttackKing(Collection<ChessMove> enemyMoves, ChessPosition kingPosition) {
-        for (ChessMove move : enemyMoves){
-            if (move.getEndPosition().equals(kingPosition)){
-                return true;
-            }
-        }
-        return false;
+    /**
+     * Determines if a square is attacked by any piece of the given team
+     *
+     * @param position the square to test
+     * @param byColor  the attacking team
+     * @return True if a piece of byColor attacks the square
+     */
+    public boolean isSquareAttacked(ChessPosition position, TeamColor byColor) {
+        return board.isSquareAttacked(position, byColor);
+    }
+
+    private static TeamColor opponent(TeamColor teamColor) {
+        return (teamColor == TeamColor.WHITE) ? TeamColor.BLACK : TeamColor.WHITE;
     }
 
     /**
@@ -150,7 +424,7 @@ public class ChessGame {
      * @return True if the specified team is in checkmate
      */
     public boolean isInCheckmate(TeamColor teamColor) {
-        return isInCheck(teamColor) && checkPossibleMoves(teamColor);
+        return evaluateStatus(teamColor) == GameStatus.CHECKMATE;
     }
 
     /**
@@ -161,7 +435,106 @@ public class ChessGame {
      * @return True if the specified team is in stalemate, otherwise false
      */
     public boolean isInStalemate(TeamColor teamColor) {
-        return !isInCheck(teamColor) && checkPossibleMoves(teamColor);
+        return evaluateStatus(teamColor) == GameStatus.STALEMATE;
+    }
+
+    /**
+     * Determines check, checkmate and stalemate for a team in one pass. The
+     * check test runs once and the team's legal moves are generated once, or
+     * read from the legal move cache when this position was seen before, so
+     * this is cheaper than calling isInCheckmate, isInStalemate and isInCheck
+     * separately.
+     *
+     * @param teamColor which team to evaluate
+     * @return the status of the team's position
+     */
+    public GameStatus evaluateStatus(TeamColor teamColor) {
+        boolean inCheck = isInCheck(teamColor);
+        boolean noMoves = checkPossibleMoves(teamColor);
+        if (noMoves) {
+            return inCheck ? GameStatus.CHECKMATE : GameStatus.STALEMATE;
+        }
+        if (getRepetitionCount() >= 3) {
+            return GameStatus.DRAW_BY_REPETITION;
+        }
+        if (halfmoveClock >= 100) {
+            return GameStatus.DRAW_BY_FIFTY_MOVES;
+        }
+        return inCheck ? GameStatus.CHECK : GameStatus.NORMAL;
+    }
+
+    /**
+     * Gets how many times the current position, with the same side to move,
+     * has occurred in this game. A count of 3 is a draw by threefold
+     * repetition. Looking it up is a single hash probe.
+     *
+     * @return occurrences of the current position, at least 1
+     */
+    public int getRepetitionCount() {
+        return Math.max(1, repetitions.count(getZobristKey()));
+    }
+
+    /**
+     * Gets how many times a position was reached by the moves played in this
+     * game, e.g. for a search to spot a move that repeats a position from
+     * before its root
+     *
+     * @param zobristKey the position's key, as {@link #getZobristKey()} gives it
+     * @return occurrences of the position since the last pawn move or capture, 0 if none
+     */
+    public int getRepetitionCount(long zobristKey) {
+        return repetitions.count(zobristKey);
+    }
+
+    /**
+     * @return plies since the last pawn move or capture; at 100 the game is a
+     * draw by the fifty-move rule
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    RepetitionTable repetitions() {
+        return repetitions;
+    }
+
+    /**
+     * Restores the draw tracking state of a saved game
+     */
+    void restoreDrawState(int halfmoveClock, RepetitionTable repetitions) {
+        this.halfmoveClock = halfmoveClock;
+        this.repetitions = repetitions;
+    }
+
+    /**
+     * @return castling rights in bits 0-3 and en passant file + 1 in bits 4-7
+     */
+    int positionState() {
+        return positionState;
+    }
+
+    void restorePositionState(int state) {
+        positionState = state;
+    }
+
+    /**
+     * Gets the castling rights the pieces on a board still allow: a right is
+     * kept while the king and that rook are on their starting squares. A board
+     * alone cannot tell whether they have moved and come back.
+     */
+    private static int castlingRightsOf(ChessBoard board) {
+        int rights = 0;
+        long whiteRooks = board.bitboard(TeamColor.WHITE, ChessPiece.PieceType.ROOK);
+        if (board.kingSquare(TeamColor.WHITE) == 4) {
+            rights |= (whiteRooks & Bitboards.bit(7)) != 0 ? WHITE_KINGSIDE : 0;
+            rights |= (whiteRooks & Bitboards.bit(0)) != 0 ? WHITE_QUEENSIDE : 0;
+        }
+        long blackRooks = board.bitboard(TeamColor.BLACK, ChessPiece.PieceType.ROOK);
+        if (board.kingSquare(TeamColor.BLACK) == 60) {
+            rights |= (blackRooks & Bitboards.bit(63)) != 0 ? BLACK_KINGSIDE : 0;
+            rights |= (blackRooks & Bitboards.bit(56)) != 0 ? BLACK_QUEENSIDE : 0;
+        }
+        return rights;
     }
 
     /**
@@ -171,6 +544,13 @@ public class ChessGame {
      */
     public void setBoard(ChessBoard board) {
         this.board = board;
+        positionState = castlingRightsOf(board);
+        restartLogAt(0); // the log described the old board
+        halfmoveClock = 0;
+        repetitions.clear();
+        if (legalMoveCache != null) {
+            legalMoveCache.clear();
+        }
     }
 
     /**
@@ -188,80 +568,187 @@ public class ChessGame {
      * @return king position
      */
     public ChessPosition findKing(ChessGame.TeamColor teamColor, ChessBoard board){
-        // loop through every square until the king is found
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition testPosition = new ChessPosition(row, col);
-                ChessPiece piece = board.getPiece(testPosition);
-
-                // check if the piece is king and on correct team
-                if (piece != null &&
-                        piece.getPieceType() == ChessPiece.PieceType.KING &&
-                        piece.getTeamColor() == teamColor) {
-                    return testPosition; // return found king position
-                }
-            }
+        return board.getKingPosition(teamColor);
+    }
+
+    /**
+     * Gets the Zobrist key of this position: the board's key combined with the
+     * side to move, castling rights and en passant file. Equal positions have
+     * equal keys, and the key is kept up to date incrementally, so this is O(1).
+     *
+     * @return 64-bit hash of the position
+     */
+    public long getZobristKey() {
+        return positionKey(currentTurn);
+    }
+
+    /**
+     * @return the key getZobristKey would give with teamColor to move
+     */
+    private long positionKey(TeamColor teamColor) {
+        long key = board.getZobristKey() ^ Zobrist.CASTLING[positionState & CASTLING_RIGHTS];
+        if (teamColor == TeamColor.BLACK) {
+            key ^= Zobrist.BLACK_TO_MOVE;
+        }
+        int file = (positionState >>> EN_PASSANT_SHIFT) - 1;
+        if (file >= 0 && teamColor == currentTurn) {
+            key ^= Zobrist.EN_PASSANT_FILE[file];
         }
-        return null;
+        return key;
     }
 
-    public ChessBoard copyBoard(ChessBoard ogBoard){
-        ChessBoard newBoard = new ChessBoard();
-        for (int row = 1; row <= 8; row++){
-            for (int col = 1; col <= 8; col++){
-                ChessPosition position = new ChessPosition(row, col);
-                ChessPiece piece = ogBoard.getPiece(position);
-
-                if(piece != null){
-                    ChessPiece newPiece = new ChessPiece(piece.getTeamColor(), piece.getPieceType());
-                    newBoard.addPiece(position, newPiece);
-                }
+    /**
+     * Writes this position as a FEN string. The en passant field names the
+     * square only when a pawn can actually capture there.
+     *
+     * @return the position in Forsyth-Edwards Notation
+     */
+    public String toFen() {
+        StringBuilder builder = new StringBuilder(90);
+        board.appendFen(builder);
+        builder.append(currentTurn == TeamColor.WHITE ? " w " : " b ");
+        int rights = positionState & CASTLING_RIGHTS;
+        if (rights == 0) {
+            builder.append('-');
+        }
+        for (int i = 0; i < CASTLING_CHARS.length(); i++) {
+            if ((rights & (1 << i)) != 0) {
+                builder.append(CASTLING_CHARS.charAt(i));
             }
         }
-        return newBoard;
+        int enPassant = enPassantSquare(currentTurn);
+        if (enPassant < 0) {
+            builder.append(" -");
+        } else {
+            builder.append(' ').append((char) ('a' + (enPassant & 7))).append(Bitboards.row(enPassant));
+        }
+        builder.append(' ').append(halfmoveClock).append(' ').append(getPlyCount() / 2 + 1);
+        return builder.toString();
     }
 
-    public void applyMove(ChessBoard board, ChessMove move){
-        ChessPosition start = move.getStartPosition();
-        ChessPosition end = move.getEndPosition();
-        ChessPiece.PieceType promotionType = move.getPromotionPiece();
+    /**
+     * Reads a game from a FEN string. The piece placement and side to move are
+     * required. The castling, en passant and move counter fields may be left
+     * out; castling rights are then taken from where the kings and rooks stand.
+     *
+     * @param fen the position in Forsyth-Edwards Notation
+     * @return a game at that position
+     * @throws IllegalArgumentException if the FEN is malformed
+     */
+    public static ChessGame fromFen(String fen) {
+        // start and end index of each field, scanned by hand rather than with a regex split
+        int[] bounds = new int[FEN_FIELDS * 2];
+        int fields = splitFields(fen, bounds);
+        if (fields < 2) {
+            throw new IllegalArgumentException("FEN needs a piece placement and a side to move: " + fen);
+        }
+        if (bounds[3] - bounds[2] != 1 || (fen.charAt(bounds[2]) != 'w' && fen.charAt(bounds[2]) != 'b')) {
+            throw new IllegalArgumentException("Bad FEN side to move: " + fen);
+        }
+        TeamColor turn = fen.charAt(bounds[2]) == 'w' ? TeamColor.WHITE : TeamColor.BLACK;
 
-        // get piece
-        ChessPiece piece = board.getPiece(start);
+        ChessGame game = new ChessGame();
+        game.setBoard(ChessBoard.fromFen(fen, bounds[0], bounds[1]));
+        game.setTeamTurn(turn);
+        if (fields > 2) {
+            game.positionState = parseCastling(fen, bounds[4], bounds[5]);
+        }
+        if (fields > 3 && !isDash(fen, bounds[6], bounds[7])) {
+            int expectedRow = turn == TeamColor.WHITE ? 6 : 3;
+            char file = fen.charAt(bounds[6]);
+            if (bounds[7] - bounds[6] != 2 || file < 'a' || file > 'h'
+                    || fen.charAt(bounds[6] + 1) - '0' != expectedRow) {
+                throw new IllegalArgumentException("Bad FEN en passant square: " + fen);
+            }
+            // dropped like after a double push when no pawn can take, so the game equals the one played out
+            if (game.canCaptureEnPassant(Bitboards.square(expectedRow, file - 'a' + 1), opponent(turn))) {
+                game.positionState |= (file - 'a' + 1) << EN_PASSANT_SHIFT;
+            }
+        }
+        try {
+            if (fields > 4) {
+                game.halfmoveClock = Integer.parseInt(fen, bounds[8], bounds[9], 10);
+            }
+            if (fields > 5) {
+                int fullmove = Integer.parseInt(fen, bounds[10], bounds[11], 10);
+                game.restartLogAt(Math.max(0, (fullmove - 1) * 2 + turn.ordinal()));
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Bad FEN move counter: " + fen);
+        }
+        if (game.halfmoveClock < 0) {
+            throw new IllegalArgumentException("Bad FEN move counter: " + fen);
+        }
+        return game;
+    }
+
+    /**
+     * Finds the whitespace separated fields of a FEN string
+     *
+     * @param bounds filled with each field's start index followed by its end index
+     * @return the number of fields found
+     * @throws IllegalArgumentException if there are more than {@link #FEN_FIELDS} fields
+     */
+    private static int splitFields(String fen, int[] bounds) {
+        int fields = 0;
+        int i = 0;
+        while (true) {
+            while (i < fen.length() && Character.isWhitespace(fen.charAt(i))) {
+                i++;
+            }
+            if (i == fen.length()) {
+                return fields;
+            }
+            if (fields == FEN_FIELDS) {
+                throw new IllegalArgumentException("FEN has more than " + FEN_FIELDS + " fields: " + fen);
+            }
+            bounds[fields * 2] = i;
+            while (i < fen.length() && !Character.isWhitespace(fen.charAt(i))) {
+                i++;
+            }
+            bounds[fields * 2 + 1] = i;
+            fields++;
+        }
+    }
 
-        // remove piece from start square
-        board.addPiece(start, null);
+    private static boolean isDash(String fen, int start, int end) {
+        return end - start == 1 && fen.charAt(start) == '-';
+    }
 
-        // promotion piece
-        if (promotionType != null){
-            ChessPiece promotedPiece = new ChessPiece(piece.getTeamColor(), promotionType);
-            board.addPiece(end, promotedPiece);
-        }else{
-            board.addPiece(end, piece);
+    private static int parseCastling(String fen, int start, int end) {
+        if (isDash(fen, start, end)) {
+            return 0;
+        }
+        int rights = 0;
+        for (int i = start; i < end; i++) {
+            int index = CASTLING_CHARS.indexOf(fen.charAt(i));
+            if (index < 0) {
+                throw new IllegalArgumentException("Bad FEN castling rights: " + fen);
+            }
+            rights |= 1 << index;
         }
+        return rights;
+    }
+
+    public ChessBoard copyBoard(ChessBoard ogBoard){
+        return new ChessBoard(ogBoard);
+    }
+
+    public void applyMove(ChessBoard board, ChessMove move){
+        board.makeMove(move);
     }
 
     public void changeTurn(){
+        // assigned directly, since setTeamTurn also resets repetition tracking
         if(currentTurn == TeamColor.WHITE){
-            setTeamTurn(TeamColor.BLACK);
+            currentTurn = TeamColor.BLACK;
         } else {
-            setTeamTurn(TeamColor.WHITE);
+            currentTurn = TeamColor.WHITE;
         }
     }
 
     public boolean checkPossibleMoves(TeamColor teamColor){
-        for (int row = 1; row <= 8; row++) {
-            for (int col = 1; col <= 8; col++) {
-                ChessPosition position = new ChessPosition(row, col);
-                ChessPiece piece = board.getPiece(position);
-                if (piece != null && piece.getTeamColor() == teamColor){
-                    if (!validMoves(position).isEmpty()){
-                        return false; // there are NO moves
-                    }
-                }
-            }
-        }
-        return true; // there ARE moves
+        return cachedLegalMoves(teamColor).length == 0; // true when there are NO moves
     }
     public boolean isGameOver() {
         return gameOver;
@@ -277,11 +764,12 @@ public class ChessGame {
             return false;
         }
         ChessGame chessGame = (ChessGame) o;
-        return currentTurn == chessGame.currentTurn && Objects.equals(board, chessGame.board);
+        return currentTurn == chessGame.currentTurn && positionState == chessGame.positionState
+                && Objects.equals(board, chessGame.board);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(currentTurn, board);
+        return Long.hashCode(getZobristKey());
     }
 }
@@ -3,7 +3,6 @@ package chess;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.Objects;
 
 /**
  * Represents a single chess piece
@@ -16,11 +15,38 @@ public class ChessPiece {
     private final ChessGame.TeamColor pieceColor;
     private final PieceType type;
 
+    // one shared instance per color and type, indexed like ChessBoard piece indexes
+    private static final ChessPiece[] PIECES = new ChessPiece[12];
+
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (PieceType pieceType : PieceType.values()) {
+                PIECES[ChessBoard.pieceIndex(color, pieceType)] = new ChessPiece(color, pieceType);
+            }
+        }
+    }
+
     public ChessPiece(ChessGame.TeamColor pieceColor, PieceType type) {
         this.pieceColor = pieceColor;
         this.type = type;
     }
 
+    /**
+     * Gets the shared instance for a piece. Pieces are immutable, so all 12
+     * color and type combinations are cached and reused instead of allocated.
+     *
+     * @param pieceColor which team the piece belongs to
+     * @param type       which type of piece
+     * @return the cached piece
+     */
+    public static ChessPiece of(ChessGame.TeamColor pieceColor, PieceType type) {
+        return PIECES[ChessBoard.pieceIndex(pieceColor, type)];
+    }
+
+    static ChessPiece ofIndex(int pieceIndex) {
+        return PIECES[pieceIndex];
+    }
+
     /**
      * The various different chess piece options
      */
@@ -55,194 +81,119 @@ public class ChessPiece {
      * @return Collection of valid moves
      */
     public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
-        ChessPiece piece = board.getPiece(myPosition);
-        ChessGame.TeamColor myColor = pieceColor;
-
-        List<ChessMove> moves = new ArrayList<>();
+        MoveList moves = new MoveList();
+        generateMoves(board, Bitboards.square(myPosition), ChessBoard.pieceIndex(pieceColor, type), moves);
 
-        if (piece.getPieceType() == PieceType.BISHOP){
-            // Add all possible diagonals to move list
-            moveInDirection(moves, myPosition, 1, 1, board, myColor); // up-right
-            moveInDirection(moves, myPosition, -1,1, board, myColor); // down-right
-            moveInDirection(moves, myPosition, -1, -1, board, myColor); // down-left
-            moveInDirection(moves, myPosition, 1,-1, board, myColor); // up-left
-        }
-        if (piece.getPieceType() == PieceType.ROOK){
-            moveInDirection(moves, myPosition,1, 0, board, myColor); // up
-            moveInDirection(moves, myPosition, -1, 0, board, myColor); // down
-            moveInDirection(moves, myPosition, 0, 1, board, myColor); // right
-            moveInDirection(moves, myPosition, 0, -1, board, myColor); // left
-        }
-        if (piece.getPieceType() == PieceType.KNIGHT){
-            moveSinglePos(moves, myPosition, 2, 1, board, myColor);
-            moveSinglePos(moves, myPosition, -2, 1, board, myColor);
-            moveSinglePos(moves, myPosition, 2, -1, board, myColor);
-            moveSinglePos(moves, myPosition, -2, -1, board, myColor);
-            moveSinglePos(moves, myPosition, 1, 2, board, myColor);
-            moveSinglePos(moves, myPosition, -1, 2, board, myColor);
-            moveSinglePos(moves, myPosition, 1, -2, board, myColor);
-            moveSinglePos(moves, myPosition, -1, -2, board, myColor);
-        }
-        if (piece.getPieceType() == PieceType.KING) {
-            moveSinglePos(moves, myPosition, 1, -1, board, myColor);
-            moveSinglePos(moves, myPosition, 1, 0, board, myColor);
-            moveSinglePos(moves, myPosition, 1, 1, board, myColor);
-            moveSinglePos(moves, myPosition, 0, -1, board, myColor);
-            moveSinglePos(moves, myPosition, 0,1, board, myColor);
-            moveSinglePos(moves, myPosition, -1, -1, board, myColor);
-            moveSinglePos(moves, myPosition, -1, 0, board, myColor);
-            moveSinglePos(moves, myPosition, -1, 1, board, myColor);
-        }
-        if (piece.getPieceType() == PieceType.QUEEN) {
-            // Diagonal
-            moveInDirection(moves, myPosition, 1, 1, board, myColor); // up-right
-            moveInDirection(moves, myPosition, -1,1, board, myColor); // down-right
-            moveInDirection(moves, myPosition, -1, -1, board, myColor); // down-left
-            moveInDirection(moves, myPosition, 1,-1, board, myColor); // up-left
-            // Straight
-            moveInDirection(moves, myPosition,1, 0, board, myColor); // up
-            moveInDirection(moves, myPosition, -1, 0, board, myColor); // down
-            moveInDirection(moves, myPosition, 0, 1, board, myColor); // right
-            moveInDirection(moves, myPosition, 0, -1, board, myColor); // left
-        }
-        if (piece.getPieceType() == PieceType.PAWN){
-            int rowDir;
-
-            // ROW DIRECTION based on color
-            if (myColor == ChessGame.TeamColor.WHITE) {
-                rowDir = 1; // white piece moves down board.
-            }else {
-                rowDir = -1; // black piece moves up board.
-            }
-            // FIRST MOVE
-            if (myColor == ChessGame.TeamColor.WHITE && myPosition.getRow() == 2){ // start position
-                pawnFistMove(moves, myPosition, rowDir, board);
-                pawnCaptureMove(moves, myPosition, board, myColor);
-            }
-            else if (myColor == ChessGame.TeamColor.BLACK && myPosition.getRow() == 7){ // start position
-                pawnFistMove(moves, myPosition, rowDir, board);
-                pawnCaptureMove(moves, myPosition, board, myColor);
-            } else{
-                pawnMoveSingleForward(moves, myPosition, board, rowDir);
-                pawnCaptureMove(moves, myPosition, board, myColor);
-            }
-        }
-        return moves;
-    }
-    private void addPawnMoves(List<ChessMove> moves, ChessPosition startPos, ChessPosition testPosition){
-        if (testPosition.getRow() == 1 || testPosition.getRow() == 8) {
-            moves.add(new ChessMove(startPos, testPosition, PieceType.QUEEN));
-            moves.add(new ChessMove(startPos, testPosition, PieceType.BISHOP));
-            moves.add(new ChessMove(startPos, testPosition, PieceType.ROOK));
-            moves.add(new ChessMove(startPos, testPosition, PieceType.KNIGHT));
-        } else {
-            moves.add(new ChessMove(startPos, testPosition, null));
+        List<ChessMove> chessMoves = new ArrayList<>(moves.size());
+        for (int i = 0; i < moves.size(); i++) {
+            chessMoves.add(PackedMove.toChessMove(moves.get(i)));
         }
+        return chessMoves;
     }
 
-    private void pawnMoveSingleForward(List<ChessMove> moves, ChessPosition startPos, ChessBoard board, int rowDir){
-        ChessPosition testPosition= new ChessPosition(startPos.getRow() + rowDir, startPos.getColumn());
+    /**
+     * Appends the packed pseudo-legal moves of a piece to a move list. Like
+     * pieceMoves, this does not check whether a move leaves the king in danger.
+     *
+     * @param board      the board the piece is on
+     * @param from       the square the piece is on
+     * @param pieceIndex the piece's ChessBoard piece index
+     * @param moves      the list to append to
+     */
+    static void generateMoves(ChessBoard board, int from, int pieceIndex, MoveList moves) {
+        generateMoves(board, from, pieceIndex, ~0L, moves);
+    }
 
-        if(checkValidPosition(testPosition)){
-            ChessPiece pieceAt = board.getPiece(testPosition);
-            if (pieceAt == null) {
-                addPawnMoves(moves, startPos, testPosition);
+    /**
+     * Appends the packed pseudo-legal moves of a piece that land on one of the
+     * allowed squares. The legal move generator uses the mask to keep pinned
+     * pieces on their pin line and to answer a check.
+     *
+     * @param board      the board the piece is on
+     * @param from       the square the piece is on
+     * @param pieceIndex the piece's ChessBoard piece index
+     * @param allowed    bitboard of squares the piece may move to
+     * @param moves      the list to append to
+     */
+    static void generateMoves(ChessBoard board, int from, int pieceIndex, long allowed, MoveList moves) {
+        ChessGame.TeamColor myColor = ChessBoard.colorOf(pieceIndex);
+        long own = board.occupancy(myColor);
+        long enemy = board.occupied() & ~own;
+        long occupied = board.occupied();
+
+        long targets = switch (ChessBoard.typeOf(pieceIndex)) {
+            case KING -> Bitboards.KING_ATTACKS[from];
+            case QUEEN -> Bitboards.queenAttacks(from, occupied);
+            case BISHOP -> Bitboards.bishopAttacks(from, occupied);
+            case KNIGHT -> Bitboards.KNIGHT_ATTACKS[from];
+            case ROOK -> Bitboards.rookAttacks(from, occupied);
+            case PAWN -> {
+                pawnMoves(moves, from, myColor, occupied, enemy, allowed);
+                yield 0L;
             }
-        }
+        };
+        // can move onto empty squares and capture enemy pieces, but not own pieces
+        addMoves(moves, from, targets & ~own & allowed, enemy);
     }
 
-    private void pawnCaptureMove(List<ChessMove> moves, ChessPosition startPos, ChessBoard board,  ChessGame.TeamColor myColor) {
-        int rowDir;
+    private static void pawnMoves(MoveList moves, int from, ChessGame.TeamColor myColor, long occupied, long enemy,
+                                  long allowed) {
+        long empty = ~occupied;
 
+        // white pawns move up the board, black pawns move down
+        long oneForward;
+        long twoForward = 0L;
         if (myColor == ChessGame.TeamColor.WHITE) {
-            rowDir = 1; // white piece moves down board.
+            oneForward = (Bitboards.bit(from) << 8) & empty;
+            if ((Bitboards.bit(from) & Bitboards.RANK_2) != 0) { // start position
+                twoForward = (oneForward << 8) & empty;
+            }
         } else {
-            rowDir = -1; // black piece moves up board.
+            oneForward = (Bitboards.bit(from) >>> 8) & empty;
+            if ((Bitboards.bit(from) & Bitboards.RANK_7) != 0) { // start position
+                twoForward = (oneForward >>> 8) & empty;
+            }
         }
+        long captures = Bitboards.PAWN_ATTACKS[myColor.ordinal()][from] & enemy & allowed;
+        // the single push square must be empty for the double push even when only the double push is allowed
+        oneForward &= allowed;
+        twoForward &= allowed;
 
-        ChessPosition leftDiag = new ChessPosition(startPos.getRow() + rowDir, startPos.getColumn() - 1);
-        if (checkValidPosition(leftDiag)) {
-            addPawnCaptureMove(moves, startPos, leftDiag, board, myColor);
-        }
-        ChessPosition rightDiag = new ChessPosition(startPos.getRow() + rowDir, startPos.getColumn() + 1);
-        if (checkValidPosition(rightDiag)) {
-            addPawnCaptureMove(moves, startPos, rightDiag, board, myColor);
+        addPawnMoves(moves, from, oneForward, 0);
+        if (twoForward != 0) {
+            moves.add(PackedMove.encode(from, Long.numberOfTrailingZeros(twoForward), -1, PackedMove.DOUBLE_PUSH));
         }
+        addPawnMoves(moves, from, captures, PackedMove.CAPTURE);
     }
 
-    private void addPawnCaptureMove(List<ChessMove> moves, ChessPosition startPos, ChessPosition testPosition ,
-                                    ChessBoard board,  ChessGame.TeamColor myColor){
-        ChessPiece pieceAt = board.getPiece(testPosition);
-        if (pieceAt != null && pieceAt.getTeamColor() != myColor){
-            addPawnMoves(moves, startPos, testPosition);
+    private static void addPawnMoves(MoveList moves, int from, long targets, int flags) {
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            if (((Bitboards.RANK_1 | Bitboards.RANK_8) & Bitboards.bit(to)) != 0) {
+                moves.add(PackedMove.encode(from, to, PieceType.QUEEN.ordinal(), flags));
+                moves.add(PackedMove.encode(from, to, PieceType.BISHOP.ordinal(), flags));
+                moves.add(PackedMove.encode(from, to, PieceType.ROOK.ordinal(), flags));
+                moves.add(PackedMove.encode(from, to, PieceType.KNIGHT.ordinal(), flags));
+            } else {
+                moves.add(PackedMove.encode(from, to, -1, flags));
+            }
         }
     }
 
-    private void pawnFistMove(List<ChessMove> moves, ChessPosition startPosition, int rowDir,
-                              ChessBoard board){
-        ChessPosition oneForward = new ChessPosition(startPosition.getRow()+ rowDir, startPosition.getColumn());
-        ChessPosition twoForward = new ChessPosition(startPosition.getRow() + (rowDir*2), startPosition.getColumn());
-        ChessPiece pieceOneForward = board.getPiece(oneForward);
-        ChessPiece pieceTwoForward = board.getPiece(twoForward);
-
-        if (pieceOneForward == null){
-            moves.add (new ChessMove(startPosition, oneForward, null));
-            if (pieceTwoForward == null){
-                moves.add (new ChessMove(startPosition, twoForward, null));
-            }
+    private static void addMoves(MoveList moves, int from, long targets, long enemy) {
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            long target = targets & -targets;
+            targets &= targets - 1;
+            moves.add(PackedMove.encode(from, to, -1, (enemy & target) != 0 ? PackedMove.CAPTURE : 0));
         }
     }
 
     // Check if position is valid on the board
     public boolean checkValidPosition(ChessPosition currentPosition){
         // Check if move on board.
-        return currentPosition.getRow() <= 8 &&
-                currentPosition.getColumn() <= 8 &&
-                currentPosition.getRow() >= 1 &&
-                currentPosition.getColumn() >= 1;
-    }
-    //move in a direction.
-    private void moveInDirection(List<ChessMove> moves, ChessPosition startPos,
-                                 int rowDir, int colDir, ChessBoard board, ChessGame.TeamColor myColor){
-        int row = startPos.getRow() +rowDir;
-        int col = startPos.getColumn() + colDir;
-
-        //valid position & not blocked.
-        while (checkValidPosition(new ChessPosition(row,col))){
-            ChessPosition testPosition = new ChessPosition(row, col);
-            ChessPiece pieceAt = board.getPiece(testPosition);
-
-            // Check if route is blocked.
-            if (pieceAt == null) { // no piece blocking route
-                moves.add(new ChessMove(startPos, testPosition, null));
-            } else { // if piece is opposite color add pos else break
-                if (checkCanCapture(pieceAt, myColor)) {
-                    moves.add(new ChessMove(startPos, testPosition, null));
-                }
-                break;
-            }
-
-        row += rowDir;
-        col += colDir;
-        }
-    }
-    private void moveSinglePos (List<ChessMove> moves, ChessPosition startPos, int rowDir, int colDir,
-                                ChessBoard board, ChessGame.TeamColor myColor){
-        ChessPosition testPosition = new ChessPosition(startPos.getRow()+rowDir, startPos.getColumn()+colDir);
-
-        if (checkValidPosition(testPosition)){
-            ChessPiece pieceAt = board.getPiece(testPosition);
-            if (pieceAt == null) {
-                moves.add(new ChessMove(startPos, testPosition, null));
-            } else {
-                if(checkCanCapture(pieceAt, myColor)){
-                    moves.add(new ChessMove(startPos, testPosition, null));
-                }
-            }
-        }
-    }
-    private boolean checkCanCapture(ChessPiece testPiece, ChessGame.TeamColor myColor){
-        return testPiece.getTeamColor() != myColor; // returns true if it can capture, false if same team.
+        return Bitboards.onBoard(currentPosition.getRow(), currentPosition.getColumn());
     }
 
     @Override
@@ -256,6 +207,6 @@ public class ChessPiece {
 
     @Override
     public int hashCode() {
-        return Objects.hash(pieceColor, type);
+        return ChessBoard.pieceIndex(pieceColor, type);
     }
 }
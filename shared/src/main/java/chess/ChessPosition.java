@@ -1,7 +1,5 @@
 package chess;
 
-import java.util.Objects;
-
 /**
  * Represents a single square position on a chess board
  * <p>
@@ -13,11 +11,39 @@ public class ChessPosition {
     private final int row;
     private final int col;
 
+    // the 64 on-board positions, indexed by square (a1 = 0, h8 = 63)
+    private static final ChessPosition[] SQUARES = new ChessPosition[64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            SQUARES[square] = new ChessPosition(Bitboards.row(square), Bitboards.column(square));
+        }
+    }
+
     public ChessPosition(int row, int col) {
         this.row = row;
         this.col = col;
     }
 
+    /**
+     * Gets the shared instance for a position. Positions are immutable, so
+     * on-board positions are cached and reused instead of allocated.
+     *
+     * @param row the row, 1 codes for the bottom row
+     * @param col the column, 1 codes for the left column
+     * @return the cached position, or a new one if it is off the board
+     */
+    public static ChessPosition of(int row, int col) {
+        if (!Bitboards.onBoard(row, col)) {
+            return new ChessPosition(row, col);
+        }
+        return SQUARES[Bitboards.square(row, col)];
+    }
+
+    static ChessPosition ofSquare(int square) {
+        return SQUARES[square];
+    }
+
     /**
      * @return which row this position is in
      * 1 codes for the bottom row
@@ -50,6 +76,6 @@ public class ChessPosition {
 
     @Override
     public int hashCode() {
-        return Objects.hash(row, col);
+        return 31 * row + col;
     }
 }
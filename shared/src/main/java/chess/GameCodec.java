@@ -0,0 +1,134 @@
+package chess;
+
+/**
+ * Compact, versioned binary form of a ChessGame, for storage.
+ * <p>
+ * Layout, 39 bytes plus 9 per tracked position:
+ * <ul>
+ *     <li>byte 0: format version</li>
+ *     <li>byte 1: state bits; bit 0 set when black is to move, bit 1 set when the game is over</li>
+ *     <li>bytes 2-3: plies played so far, unsigned big-endian</li>
+ *     <li>byte 4: halfmove clock, unsigned</li>
+ *     <li>byte 5: number of positions n tracked for repetition, unsigned</li>
+ *     <li>byte 6: castling rights in the low nibble (white kingside, white queenside, black kingside,
+ *     black queenside from bit 0), en passant file + 1 in the high nibble, 0 when there is none</li>
+ *     <li>bytes 7-38: the board, 4 bits per square from a1 to h8, low nibble first. A nibble is
+ *     0 for an empty square, otherwise the ChessBoard piece index + 1</li>
+ *     <li>then n entries of a position's Zobrist key (8 bytes, big-endian) and its count (1 byte)</li>
+ * </ul>
+ */
+public final class GameCodec {
+
+    public static final int VERSION = 1;
+
+    private static final int STATE_BLACK_TO_MOVE = 1;
+    private static final int STATE_GAME_OVER = 1 << 1;
+    private static final int HEADER_LENGTH = 7;
+    private static final int BOARD_LENGTH = 32;
+    private static final int ENTRY_LENGTH = 9;
+    private static final int MAX_PLY = 0xFFFF;
+    private static final int MAX_BYTE = 0xFF;
+
+    private GameCodec() {
+    }
+
+    /**
+     * @param game the game to encode
+     * @return the game in the current binary format
+     */
+    public static byte[] encode(ChessGame game) {
+        RepetitionTable repetitions = game.repetitions();
+        if (repetitions.size() > MAX_BYTE) {
+            throw new IllegalArgumentException("Too many positions to encode: " + repetitions.size());
+        }
+        byte[] bytes = new byte[HEADER_LENGTH + BOARD_LENGTH + repetitions.size() * ENTRY_LENGTH];
+        bytes[0] = VERSION;
+        int state = 0;
+        if (game.getTeamTurn() == ChessGame.TeamColor.BLACK) {
+            state |= STATE_BLACK_TO_MOVE;
+        }
+        if (game.isGameOver()) {
+            state |= STATE_GAME_OVER;
+        }
+        bytes[1] = (byte) state;
+        int ply = game.getPlyCount();
+        if (ply > MAX_PLY) {
+            throw new IllegalArgumentException("Game is too long to encode: " + ply + " plies");
+        }
+        bytes[2] = (byte) (ply >>> 8);
+        bytes[3] = (byte) ply;
+        // the game is drawn long before the clock passes 255, so capping loses nothing
+        bytes[4] = (byte) Math.min(game.getHalfmoveClock(), MAX_BYTE);
+        bytes[5] = (byte) repetitions.size();
+        bytes[6] = (byte) game.positionState();
+
+        ChessBoard board = game.getBoard();
+        long occupied = board.occupied();
+        while (occupied != 0) {
+            int square = Long.numberOfTrailingZeros(occupied);
+            occupied &= occupied - 1;
+            int nibble = board.pieceIndexAt(square) + 1;
+            bytes[HEADER_LENGTH + (square >>> 1)] |= (byte) ((square & 1) == 0 ? nibble : nibble << 4);
+        }
+
+        int[] offset = {HEADER_LENGTH + BOARD_LENGTH};
+        repetitions.forEach((key, count) -> {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                bytes[offset[0]++] = (byte) (key >>> shift);
+            }
+            bytes[offset[0]++] = (byte) count;
+        });
+        return bytes;
+    }
+
+    /**
+     * @param bytes a game encoded by {@link #encode(ChessGame)}
+     * @return the decoded game
+     * @throws IllegalArgumentException if the bytes are not a supported encoding
+     */
+    public static ChessGame decode(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            throw new IllegalArgumentException("No encoded game");
+        }
+        if (bytes[0] != VERSION) {
+            throw new IllegalArgumentException("Unsupported game encoding version " + bytes[0]);
+        }
+        int entries = bytes.length > 5 ? bytes[5] & 0xFF : 0;
+        int expectedLength = HEADER_LENGTH + BOARD_LENGTH + entries * ENTRY_LENGTH;
+        if (bytes.length != expectedLength) {
+            throw new IllegalArgumentException("Encoded game should be " + expectedLength
+                    + " bytes, got " + bytes.length);
+        }
+
+        ChessBoard board = new ChessBoard();
+        for (int square = 0; square < 64; square++) {
+            int packed = bytes[HEADER_LENGTH + (square >>> 1)];
+            int nibble = (square & 1) == 0 ? packed & 0xF : (packed >>> 4) & 0xF;
+            if (nibble > 12) {
+                throw new IllegalArgumentException("Bad piece code " + nibble + " on square " + square);
+            }
+            if (nibble != 0) {
+                board.setSquare(square, nibble - 1);
+            }
+        }
+
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        int state = bytes[1];
+        game.setTeamTurn((state & STATE_BLACK_TO_MOVE) != 0 ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE);
+        game.setGameOver((state & STATE_GAME_OVER) != 0);
+        game.restartLogAt(((bytes[2] & 0xFF) << 8) | (bytes[3] & 0xFF));
+        RepetitionTable repetitions = new RepetitionTable();
+        int offset = HEADER_LENGTH + BOARD_LENGTH;
+        for (int i = 0; i < entries; i++) {
+            long key = 0L;
+            for (int b = 0; b < 8; b++) {
+                key = (key << 8) | (bytes[offset++] & 0xFF);
+            }
+            repetitions.put(key, bytes[offset++] & 0xFF);
+        }
+        game.restoreDrawState(bytes[4] & 0xFF, repetitions);
+        game.restorePositionState(bytes[6] & 0xFF);
+        return game;
+    }
+}
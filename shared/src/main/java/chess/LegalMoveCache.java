@@ -0,0 +1,47 @@
+package chess;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Least recently used cache of legal move sets, keyed by position hash.
+ * <p>
+ * A key covers the piece placement and the team to generate moves for, so an
+ * entry stays correct for as long as it is kept: moving away from a position
+ * and back, or replacing the board, simply looks up a different key. The size
+ * is bounded so a long game cannot grow the cache without limit.
+ */
+final class LegalMoveCache {
+
+    static final int DEFAULT_CAPACITY = 32;
+
+    private final Map<Long, int[]> entries;
+
+    LegalMoveCache(int capacity) {
+        entries = new LinkedHashMap<>(capacity * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, int[]> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * @return the packed legal moves stored for the key, or null if not cached
+     */
+    int[] get(long key) {
+        return entries.get(key);
+    }
+
+    void put(long key, int[] moves) {
+        entries.put(key, moves);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    void clear() {
+        entries.clear();
+    }
+}
@@ -0,0 +1,200 @@
+package chess;
+
+/**
+ * Generates strictly legal moves without trying them on the board.
+ * <p>
+ * Each position is analysed once: the pieces giving check give a mask of
+ * squares that answer the check (capture the checker or block its ray), and
+ * slider x-rays through the king find the pinned pieces, which may only move
+ * along their pin line. King moves are tested against enemy attacks with the
+ * king lifted off the board, so it cannot step back along a checking ray.
+ * <p>
+ * Castling tests the squares the king crosses for attacks directly, and an
+ * en passant capture is tested against the occupancy it leaves behind, since
+ * it clears two squares of one rank at once and can expose the king sideways.
+ */
+final class LegalMoveGenerator {
+
+    private LegalMoveGenerator() {
+    }
+
+    /**
+     * Appends the packed legal moves of a team's pieces on the given squares
+     *
+     * @param board     the board to generate on
+     * @param teamColor       which team's moves to generate
+     * @param castlingRights  castling rights bits (see {@link ChessGame#WHITE_KINGSIDE})
+     * @param enPassantSquare square a pawn of teamColor may capture en passant onto, or -1
+     * @param fromMask        bitboard of squares whose pieces should be moved
+     * @param moves           the list to append to
+     */
+    static void generate(ChessBoard board, ChessGame.TeamColor teamColor, int castlingRights, int enPassantSquare,
+                         long fromMask, MoveList moves) {
+        long own = board.occupancy(teamColor);
+        long movers = own & fromMask;
+        int kingSquare = board.kingSquare(teamColor);
+        ChessGame.TeamColor them = teamColor == ChessGame.TeamColor.WHITE
+                ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+        if (kingSquare < 0) {
+            // nothing can be left in check, so every pseudo-legal move is legal
+            generateUnrestricted(board, movers, moves);
+            if (enPassantSquare >= 0) {
+                enPassantMoves(board, teamColor, them, kingSquare, enPassantSquare, movers, moves);
+            }
+            return;
+        }
+
+        long checkers = board.attackersTo(kingSquare, them);
+        if ((movers & Bitboards.bit(kingSquare)) != 0) {
+            kingMoves(board, kingSquare, own, them, moves);
+            if (checkers == 0 && castlingRights != 0) {
+                castlingMoves(board, kingSquare, teamColor, them, castlingRights, moves);
+            }
+        }
+        if (Long.bitCount(checkers) > 1) {
+            return; // double check, only the king can move
+        }
+        long checkMask = ~0L;
+        if (checkers != 0) {
+            int checker = Long.numberOfTrailingZeros(checkers);
+            checkMask = checkers | Bitboards.BETWEEN[kingSquare][checker];
+        }
+        long pinned = pinnedPieces(board, kingSquare, own, them);
+
+        long pieces = movers & ~Bitboards.bit(kingSquare);
+        while (pieces != 0) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            long allowed = checkMask;
+            if ((pinned & Bitboards.bit(from)) != 0) {
+                allowed &= Bitboards.LINE[kingSquare][from];
+            }
+            if (allowed != 0) {
+                ChessPiece.generateMoves(board, from, board.pieceIndexAt(from), allowed, moves);
+            }
+        }
+        if (enPassantSquare >= 0) {
+            enPassantMoves(board, teamColor, them, kingSquare, enPassantSquare, movers, moves);
+        }
+    }
+
+    private static void kingMoves(ChessBoard board, int kingSquare, long own, ChessGame.TeamColor them,
+                                  MoveList moves) {
+        long enemy = board.occupancy(them);
+        long withoutKing = board.occupied() & ~Bitboards.bit(kingSquare);
+        long targets = Bitboards.KING_ATTACKS[kingSquare] & ~own;
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            long target = targets & -targets;
+            targets &= targets - 1;
+            if (!board.isSquareAttacked(to, them, withoutKing)) {
+                moves.add(PackedMove.encode(kingSquare, to, -1, (enemy & target) != 0 ? PackedMove.CAPTURE : 0));
+            }
+        }
+    }
+
+    /**
+     * Adds the castling moves the rights allow, when the king and rook are on
+     * their starting squares, the squares between them are empty and the king
+     * does not cross an attacked square. The king must not be in check.
+     */
+    private static void castlingMoves(ChessBoard board, int kingSquare, ChessGame.TeamColor us,
+                                      ChessGame.TeamColor them, int castlingRights, MoveList moves) {
+        int home = us == ChessGame.TeamColor.WHITE ? 0 : 56;
+        if (kingSquare != home + 4) {
+            return;
+        }
+        // this side's kingside and queenside rights, in bits 0 and 1
+        int rights = castlingRights >>> (2 * us.ordinal());
+        long rooks = board.bitboard(us, ChessPiece.PieceType.ROOK);
+        long occupied = board.occupied();
+        if ((rights & ChessGame.WHITE_KINGSIDE) != 0 && (rooks & Bitboards.bit(home + 7)) != 0
+                && (occupied & (Bitboards.bit(home + 5) | Bitboards.bit(home + 6))) == 0
+                && !board.isSquareAttacked(home + 5, them) && !board.isSquareAttacked(home + 6, them)) {
+            moves.add(PackedMove.encode(kingSquare, home + 6, -1, PackedMove.CASTLE));
+        }
+        if ((rights & ChessGame.WHITE_QUEENSIDE) != 0 && (rooks & Bitboards.bit(home)) != 0
+                && (occupied & (Bitboards.bit(home + 1) | Bitboards.bit(home + 2) | Bitboards.bit(home + 3))) == 0
+                && !board.isSquareAttacked(home + 3, them) && !board.isSquareAttacked(home + 2, them)) {
+            moves.add(PackedMove.encode(kingSquare, home + 2, -1, PackedMove.CASTLE));
+        }
+    }
+
+    /**
+     * Adds en passant captures onto the target square by pawns among the movers
+     */
+    private static void enPassantMoves(ChessBoard board, ChessGame.TeamColor us, ChessGame.TeamColor them,
+                                       int kingSquare, int target, long movers, MoveList moves) {
+        // the double-pushed pawn stands just past the square it skipped
+        int captured = us == ChessGame.TeamColor.WHITE ? target - 8 : target + 8;
+        if ((board.bitboard(them, ChessPiece.PieceType.PAWN) & Bitboards.bit(captured)) == 0
+                || (board.occupied() & Bitboards.bit(target)) != 0) {
+            return;
+        }
+        // our pawns that attack the target sit where an enemy pawn on it would attack
+        long pawns = Bitboards.PAWN_ATTACKS[them.ordinal()][target]
+                & board.bitboard(us, ChessPiece.PieceType.PAWN) & movers;
+        while (pawns != 0) {
+            int from = Long.numberOfTrailingZeros(pawns);
+            pawns &= pawns - 1;
+            if (kingSquare < 0 || enPassantIsSafe(board, us, them, kingSquare, from, target, captured)) {
+                moves.add(PackedMove.encode(from, target, -1, PackedMove.CAPTURE | PackedMove.EN_PASSANT));
+            }
+        }
+    }
+
+    /**
+     * @return true if the king is not attacked once the capturing pawn has
+     * moved and the captured pawn is gone
+     */
+    private static boolean enPassantIsSafe(ChessBoard board, ChessGame.TeamColor us, ChessGame.TeamColor them,
+                                           int kingSquare, int from, int target, int captured) {
+        long occupiedAfter = (board.occupied() & ~Bitboards.bit(from) & ~Bitboards.bit(captured)) | Bitboards.bit(target);
+        long queens = board.bitboard(them, ChessPiece.PieceType.QUEEN);
+        if ((Bitboards.rookAttacks(kingSquare, occupiedAfter)
+                & (board.bitboard(them, ChessPiece.PieceType.ROOK) | queens)) != 0) {
+            return false;
+        }
+        if ((Bitboards.bishopAttacks(kingSquare, occupiedAfter)
+                & (board.bitboard(them, ChessPiece.PieceType.BISHOP) | queens)) != 0) {
+            return false;
+        }
+        // a knight or pawn check is only answered if the captured pawn was the checker
+        long steppers = (Bitboards.KNIGHT_ATTACKS[kingSquare] & board.bitboard(them, ChessPiece.PieceType.KNIGHT))
+                | (Bitboards.PAWN_ATTACKS[us.ordinal()][kingSquare] & board.bitboard(them, ChessPiece.PieceType.PAWN));
+        return (steppers & ~Bitboards.bit(captured)) == 0;
+    }
+
+    /**
+     * @return own pieces that are the only piece between the king and an enemy slider
+     */
+    private static long pinnedPieces(ChessBoard board, int kingSquare, long own, ChessGame.TeamColor them) {
+        long enemy = board.occupancy(them);
+        long queens = board.bitboard(them, ChessPiece.PieceType.QUEEN);
+        // enemy sliders that would see the king if none of our pieces were in the way
+        long snipers = (Bitboards.rookAttacks(kingSquare, enemy)
+                & (board.bitboard(them, ChessPiece.PieceType.ROOK) | queens))
+                | (Bitboards.bishopAttacks(kingSquare, enemy)
+                & (board.bitboard(them, ChessPiece.PieceType.BISHOP) | queens));
+
+        long pinned = 0L;
+        long occupied = board.occupied();
+        while (snipers != 0) {
+            int sniper = Long.numberOfTrailingZeros(snipers);
+            snipers &= snipers - 1;
+            long blockers = Bitboards.BETWEEN[kingSquare][sniper] & occupied;
+            if (Long.bitCount(blockers) == 1) {
+                pinned |= blockers & own;
+            }
+        }
+        return pinned;
+    }
+
+    private static void generateUnrestricted(ChessBoard board, long movers, MoveList moves) {
+        while (movers != 0) {
+            int from = Long.numberOfTrailingZeros(movers);
+            movers &= movers - 1;
+            ChessPiece.generateMoves(board, from, board.pieceIndexAt(from), moves);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * A reusable buffer of packed moves (see {@link PackedMove}). Generators
+ * append to it and callers clear and refill it, so enumerating moves does
+ * not allocate.
+ */
+public final class MoveList {
+
+    // no legal chess position has more than 218 moves
+    private static final int CAPACITY = 256;
+
+    private final int[] moves = new int[CAPACITY];
+    private int size;
+
+    public void add(int move) {
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * @return a copy of the moves in the list, sized to fit
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(moves, size);
+    }
+}
@@ -0,0 +1,103 @@
+package chess;
+
+/**
+ * Helpers for moves packed into a single int, used by move generation so it
+ * can run without allocating a ChessMove per candidate.
+ * <p>
+ * Layout: bits 0-5 start square, bits 6-11 end square, bits 12-14 promotion
+ * piece type ordinal + 1 (0 for none), bits 15 and up are flags. Squares use
+ * the board numbering where a1 = 0 and h8 = 63.
+ */
+public final class PackedMove {
+
+    public static final int NONE = 0;
+
+    public static final int CAPTURE = 1 << 15;
+    public static final int DOUBLE_PUSH = 1 << 16;
+    // king move of two squares, the rook is moved with it
+    public static final int CASTLE = 1 << 17;
+    // pawn capture onto the square a double-pushed pawn passed over
+    public static final int EN_PASSANT = 1 << 18;
+
+    private static final ChessPiece.PieceType[] PIECE_TYPES = ChessPiece.PieceType.values();
+
+    private PackedMove() {
+    }
+
+    /**
+     * @param from          start square
+     * @param to            end square
+     * @param promotionType promotion PieceType ordinal, or -1 for none
+     * @param flags         any of the flag bits
+     * @return the packed move
+     */
+    public static int encode(int from, int to, int promotionType, int flags) {
+        return from | (to << 6) | ((promotionType + 1) << 12) | flags;
+    }
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    /**
+     * @return promotion PieceType ordinal, or -1 if the move is not a promotion
+     */
+    public static int promotionType(int move) {
+        return ((move >>> 12) & 0x7) - 1;
+    }
+
+    public static boolean hasFlag(int move, int flag) {
+        return (move & flag) != 0;
+    }
+
+    /**
+     * @return the move with its flags cleared, i.e. only the squares and promotion,
+     * for comparing against a move packed by {@link #of(ChessMove)}
+     */
+    public static int withoutFlags(int move) {
+        return move & (CAPTURE - 1);
+    }
+
+    /**
+     * Packs a ChessMove. Flags are not set since they depend on the board.
+     */
+    public static int of(ChessMove move) {
+        ChessPiece.PieceType promotion = move.getPromotionPiece();
+        return encode(Bitboards.square(move.getStartPosition()), Bitboards.square(move.getEndPosition()),
+                promotion == null ? -1 : promotion.ordinal(), 0);
+    }
+
+    public static ChessMove toChessMove(int move) {
+        int promotion = promotionType(move);
+        return new ChessMove(ChessPosition.ofSquare(from(move)), ChessPosition.ofSquare(to(move)),
+                promotion < 0 ? null : PIECE_TYPES[promotion]);
+    }
+
+    /**
+     * @return the move in coordinate notation, e.g. e2e4 or a7a8q
+     */
+    public static String toString(int move) {
+        StringBuilder builder = new StringBuilder(5);
+        appendSquare(builder, from(move));
+        appendSquare(builder, to(move));
+        int promotion = promotionType(move);
+        if (promotion >= 0) {
+            builder.append(switch (PIECE_TYPES[promotion]) {
+                case QUEEN -> 'q';
+                case ROOK -> 'r';
+                case BISHOP -> 'b';
+                case KNIGHT -> 'n';
+                default -> '?';
+            });
+        }
+        return builder.toString();
+    }
+
+    private static void appendSquare(StringBuilder builder, int square) {
+        builder.append((char) ('a' + Bitboards.column(square) - 1)).append(Bitboards.row(square));
+    }
+}
@@ -0,0 +1,148 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Perft ("performance test") counts the leaf nodes of the legal move tree to
+ * a fixed depth. Comparing the counts with known values for reference
+ * positions catches move generator bugs, and nodes per second is the usual
+ * throughput figure for a move generator.
+ * <p>
+ * Counting works on a copy of the game, so the caller's game is not changed.
+ * {@link #parallelPerft(ChessGame, int)} splits the count into fork-join
+ * tasks per root move and per reply, each counting on its own copy.
+ */
+public final class Perft {
+
+    // plies from the root that are split into parallel tasks, the root and the first reply
+    private static final int SPLIT_PLIES = 2;
+
+    private final ChessGame game;
+    // one move buffer per ply, so counting does not allocate
+    private final MoveList[] moveLists;
+
+    private Perft(ChessGame game, int depth) {
+        this.game = new ChessGame(game);
+        this.moveLists = new MoveList[Math.max(depth, 1)];
+        for (int ply = 0; ply < moveLists.length; ply++) {
+            moveLists[ply] = new MoveList();
+        }
+    }
+
+    /**
+     * Counts the leaf nodes of the legal move tree from a position
+     *
+     * @param game  the position to count from, with its side to move
+     * @param depth how many plies to search
+     * @return number of leaf nodes at the given depth
+     */
+    public static long perft(ChessGame game, int depth) {
+        return new Perft(game, depth).count(depth, 0);
+    }
+
+    /**
+     * Counts the leaf nodes of the legal move tree like
+     * {@link #perft(ChessGame, int)}, on the common fork-join pool. The tree
+     * is split into a task per root move and, below those, a task per reply,
+     * so even a position with few root moves keeps every core busy. Each
+     * task counts its subtree on its own copy of the game, and the sums do
+     * not depend on the order tasks finish in.
+     *
+     * @param game  the position to count from, with its side to move
+     * @param depth how many plies to search
+     * @return number of leaf nodes at the given depth
+     */
+    public static long parallelPerft(ChessGame game, int depth) {
+        return new PerftTask(new ChessGame(game), depth, SPLIT_PLIES).invoke();
+    }
+
+    /**
+     * Counts leaf nodes like {@link #perft(ChessGame, int)}, broken down by the
+     * legal root move that leads to them. Comparing a divide against a
+     * reference engine narrows a wrong count down to the move that causes it.
+     *
+     * @param game  the position to count from, with its side to move
+     * @param depth how many plies to search, at least 1
+     * @return leaf node count under each legal root move, in generation order
+     */
+    public static Map<ChessMove, Long> divide(ChessGame game, int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Divide depth must be at least 1");
+        }
+        Perft perft = new Perft(game, depth);
+        ChessGame.TeamColor us = perft.game.getTeamTurn();
+        MoveList moves = perft.moveLists[0];
+        perft.game.generateLegalMoves(us, moves);
+
+        Map<ChessMove, Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            long undo = perft.game.makeMoveUnchecked(move);
+            counts.put(PackedMove.toChessMove(move), perft.count(depth - 1, 1));
+            perft.game.unmakeMove(undo);
+        }
+        return counts;
+    }
+
+    private long count(int depth, int ply) {
+        if (depth == 0) {
+            return 1;
+        }
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        game.generateLegalMoves(game.getTeamTurn(), moves);
+        if (depth == 1) {
+            return moves.size(); // every generated move is legal, so the leaves need not be visited
+        }
+
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            long undo = game.makeMoveUnchecked(moves.get(i));
+            nodes += count(depth - 1, ply + 1);
+            game.unmakeMove(undo);
+        }
+        return nodes;
+    }
+
+    /**
+     * Counts one subtree, forking a subtask per legal move while there are
+     * split plies left and the subtrees are deep enough to be worth a task
+     */
+    private static final class PerftTask extends RecursiveTask<Long> {
+
+        private final ChessGame game;
+        private final int depth;
+        private final int splitPlies;
+
+        PerftTask(ChessGame game, int depth, int splitPlies) {
+            this.game = game;
+            this.depth = depth;
+            this.splitPlies = splitPlies;
+        }
+
+        @Override
+        protected Long compute() {
+            if (splitPlies == 0 || depth <= 2) {
+                return new Perft(game, depth).count(depth, 0);
+            }
+            MoveList moves = new MoveList();
+            game.generateLegalMoves(game.getTeamTurn(), moves);
+            List<PerftTask> subtasks = new ArrayList<>(moves.size());
+            for (int i = 0; i < moves.size(); i++) {
+                ChessGame child = new ChessGame(game);
+                child.makeMoveUnchecked(moves.get(i));
+                subtasks.add(new PerftTask(child, depth - 1, splitPlies - 1));
+            }
+            long nodes = 0;
+            for (PerftTask subtask : ForkJoinTask.invokeAll(subtasks)) {
+                nodes += subtask.join();
+            }
+            return nodes;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * Counts how often each position has occurred, keyed by Zobrist key.
+ * <p>
+ * An open-addressing hash table with linear probing, so counting a position
+ * is an amortized O(1) probe without boxing. Positions before a pawn move or
+ * capture can never come back, so the game clears the table at those moves
+ * and it only ever holds the positions since the last irreversible move.
+ */
+final class RepetitionTable {
+
+    private static final int INITIAL_CAPACITY = 32;
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    // 0 marks an empty slot
+    private byte[] counts = new byte[INITIAL_CAPACITY];
+    private int size;
+
+    RepetitionTable() {
+    }
+
+    RepetitionTable(RepetitionTable other) {
+        keys = other.keys.clone();
+        counts = other.counts.clone();
+        size = other.size;
+    }
+
+    /**
+     * Records one more occurrence of a position
+     *
+     * @return how many times the position has now occurred
+     */
+    int increment(long key) {
+        int count = count(key) + 1;
+        put(key, count);
+        return count;
+    }
+
+    /**
+     * @return how many times the position has occurred, 0 if never
+     */
+    int count(long key) {
+        return counts[slot(key)];
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        Arrays.fill(counts, (byte) 0);
+        size = 0;
+    }
+
+    /**
+     * Passes every recorded position and its count to the visitor
+     */
+    void forEach(EntryVisitor visitor) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (counts[slot] != 0) {
+                visitor.visit(keys[slot], counts[slot]);
+            }
+        }
+    }
+
+    /**
+     * Sets the count of a position directly, e.g. when restoring a saved table.
+     * A count of 0 or less is ignored, since a position that never occurred
+     * takes no slot.
+     */
+    void put(long key, int count) {
+        if (count <= 0) {
+            return;
+        }
+        int slot = slot(key);
+        if (counts[slot] == 0) {
+            if ((size + 1) * 2 > keys.length) {
+                grow();
+                slot = slot(key);
+            }
+            keys[slot] = key;
+            size++;
+        }
+        counts[slot] = (byte) Math.min(count, Byte.MAX_VALUE);
+    }
+
+    // the slot holding the key, or the empty slot where it would go
+    private int slot(long key) {
+        int mask = keys.length - 1;
+        // Zobrist keys are already random, so the low bits are a fine hash
+        int slot = (int) key & mask;
+        while (counts[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        byte[] oldCounts = counts;
+        keys = new long[oldKeys.length * 2];
+        counts = new byte[oldKeys.length * 2];
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldCounts[slot] != 0) {
+                int newSlot = slot(oldKeys[slot]);
+                keys[newSlot] = oldKeys[slot];
+                counts[newSlot] = oldCounts[slot];
+            }
+        }
+    }
+
+    interface EntryVisitor {
+        void visit(long key, int count);
+    }
+}
@@ -0,0 +1,51 @@
+package chess;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random keys for Zobrist hashing. A position's key is the XOR of the key for
+ * every (piece, square) pair on the board, plus the side-to-move key when it
+ * is black's turn, so a move updates it with a few XORs instead of a rehash.
+ * Castling rights and a capturable en passant file add their own keys.
+ * <p>
+ * Keys come from a fixed seed so the same position hashes the same in every
+ * JVM, which keeps stored keys comparable between the server and clients.
+ */
+final class Zobrist {
+
+    // indexed [piece index][square]
+    static final long[][] PIECE_SQUARE = new long[12][64];
+    static final long BLACK_TO_MOVE;
+    // indexed by the castling rights bits of ChessGame; no rights hash to 0
+    static final long[] CASTLING = new long[16];
+    // indexed by the file (0-7) a pawn can be captured en passant on
+    static final long[] EN_PASSANT_FILE = new long[8];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EEDC4E55L);
+        for (long[] squares : PIECE_SQUARE) {
+            for (int square = 0; square < 64; square++) {
+                squares[square] = random.nextLong();
+            }
+        }
+        BLACK_TO_MOVE = random.nextLong();
+        // drawn after the older keys so those stay the same
+        long[] rightKeys = new long[4];
+        for (int right = 0; right < rightKeys.length; right++) {
+            rightKeys[right] = random.nextLong();
+        }
+        for (int rights = 1; rights < CASTLING.length; rights++) {
+            for (int right = 0; right < rightKeys.length; right++) {
+                if ((rights & (1 << right)) != 0) {
+                    CASTLING[rights] ^= rightKeys[right];
+                }
+            }
+        }
+        for (int file = 0; file < EN_PASSANT_FILE.length; file++) {
+            EN_PASSANT_FILE[file] = random.nextLong();
+        }
+    }
+
+    private Zobrist() {
+    }
+}
@@ -0,0 +1,24 @@
+package chess.engine;
+
+import chess.ChessGame;
+
+/**
+ * Static evaluation of a position, in centipawns
+ */
+public final class Evaluation {
+
+    private Evaluation() {
+    }
+
+    /**
+     * Reads the board's incrementally kept material and piece-square score,
+     * so evaluating a search node costs a field read rather than a board scan
+     *
+     * @param game the position to evaluate
+     * @return the score from the side to move's point of view
+     */
+    public static int evaluate(ChessGame game) {
+        int score = game.getBoard().getEvaluation();
+        return game.getTeamTurn() == ChessGame.TeamColor.WHITE ? score : -score;
+    }
+}
@@ -0,0 +1,227 @@
+package chess.engine;
+
+import chess.ChessGame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Finds a move to play with a negamax alpha-beta search.
+ * <p>
+ * The search deepens one ply at a time until its {@link SearchLimits} run
+ * out, so it always has the best move of the last finished depth to answer
+ * with. Leaf positions are settled with a quiescence search over captures
+ * and promotions before they are evaluated. Moves are made and taken back
+ * on a private copy of the game with {@link ChessGame#makeMoveUnchecked(int)},
+ * so a search allocates nothing per node and the caller's game is untouched.
+ * <p>
+ * Results are kept in a {@link TranspositionTable}, so positions reached by
+ * different move orders are searched once. One engine, and its table, can be
+ * shared by any number of concurrent searches.
+ * <p>
+ * A search can use several threads ({@link SearchLimits#threads()}) with
+ * Lazy SMP: helper threads search the same root alongside the calling
+ * thread and share its table, and the calling thread's answer is returned.
+ * Helpers run on a fixed pool of platform threads owned by the engine, so
+ * the number of search threads stays bounded however many requests ask for
+ * them; {@link #close()} shuts the pool down. A search only takes helpers
+ * whose pool threads are idle and runs with fewer when others are busy, so
+ * concurrent searches never wait on each other and each keeps its time budget.
+ */
+public final class SearchEngine implements AutoCloseable {
+
+    /**
+     * Score of being mated at the root; a mate found n plies deep scores
+     * {@code MATE - n} for the side delivering it
+     */
+    public static final int MATE = 100_000;
+
+    /**
+     * Deepest ply the search visits, including check extensions and quiescence
+     */
+    public static final int MAX_PLY = 128;
+
+    private final TranspositionTable table;
+    private final int helperThreads;
+    // one permit per idle pool thread
+    private final Semaphore idleHelpers;
+    // created on the first multi-threaded search, so single-threaded engines start no threads
+    private ExecutorService helperPool;
+    private boolean closed;
+
+    /**
+     * Creates an engine with a {@link TranspositionTable#DEFAULT_MEGABYTES} table
+     * and a helper thread for every other available processor
+     */
+    public SearchEngine() {
+        this(new TranspositionTable(TranspositionTable.DEFAULT_MEGABYTES));
+    }
+
+    /**
+     * @param table the table to keep search results in, possibly shared with other engines
+     */
+    public SearchEngine(TranspositionTable table) {
+        this(table, Runtime.getRuntime().availableProcessors() - 1);
+    }
+
+    /**
+     * @param table         the table to keep search results in, possibly shared with other engines
+     * @param helperThreads size of the helper pool; a search uses at most this many threads
+     *                      besides the calling thread
+     */
+    public SearchEngine(TranspositionTable table, int helperThreads) {
+        if (helperThreads < 0) {
+            throw new IllegalArgumentException("Helper thread count cannot be negative: " + helperThreads);
+        }
+        this.table = table;
+        this.helperThreads = helperThreads;
+        this.idleHelpers = new Semaphore(helperThreads);
+    }
+
+    /**
+     * Searches a position for the side to move
+     *
+     * @param game   the position to search; it is copied, not changed
+     * @param limits when to stop searching
+     * @return the best move found and its score
+     */
+    public SearchResult search(ChessGame game, SearchLimits limits) {
+        table.newSearch();
+        AtomicBoolean stopSignal = new AtomicBoolean();
+        SearchWorker main = new SearchWorker(game, limits, table, 0, stopSignal);
+        int helpers = reserveHelpers(limits.threads() - 1);
+        ExecutorService pool = helpers > 0 ? helperPool() : null;
+        if (pool == null) {
+            idleHelpers.release(helpers);
+            return main.run();
+        }
+
+        List<Helper> started = new ArrayList<>(helpers);
+        List<Future<SearchResult>> helperResults = new ArrayList<>(helpers);
+        for (int id = 1; id <= helpers; id++) {
+            Helper helper = new Helper(new SearchWorker(game, limits, table, id, stopSignal));
+            try {
+                helperResults.add(pool.submit(helper));
+                started.add(helper);
+            } catch (RejectedExecutionException e) {
+                // closed while this search was starting; carry on with the helpers already running
+                helper.abandon();
+                idleHelpers.release(helpers - id);
+                break;
+            }
+        }
+        SearchResult result;
+        try {
+            result = main.run();
+        } finally {
+            stopSignal.set(true);
+        }
+
+        long nodes = result.nodes();
+        for (int i = 0; i < started.size(); i++) {
+            if (started.get(i).abandon()) {
+                continue; // never ran, e.g. dropped from the queue by close()
+            }
+            try {
+                nodes += helperResults.get(i).get().nodes();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Search helper failed", e.getCause());
+            }
+        }
+        return new SearchResult(result.bestMove(), result.score(), result.depth(), nodes, result.elapsedMillis());
+    }
+
+    /**
+     * Takes up to the wanted number of idle helper threads without waiting
+     *
+     * @return how many were taken; each must be released when its helper is done
+     */
+    private int reserveHelpers(int wanted) {
+        int reserved = 0;
+        while (reserved < wanted && idleHelpers.tryAcquire()) {
+            reserved++;
+        }
+        return reserved;
+    }
+
+    /**
+     * @return the helper pool, or null once the engine is closed
+     */
+    private synchronized ExecutorService helperPool() {
+        if (closed) {
+            return null;
+        }
+        if (helperPool == null) {
+            AtomicInteger count = new AtomicInteger();
+            helperPool = Executors.newFixedThreadPool(helperThreads, runnable -> {
+                Thread thread = new Thread(runnable, "search-helper-" + count.incrementAndGet());
+                thread.setDaemon(true); // an idle pool should not keep the JVM alive
+                return thread;
+            });
+        }
+        return helperPool;
+    }
+
+    /**
+     * Stops the helper threads. Searches started afterwards run on the calling thread only.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (helperPool != null) {
+            helperPool.shutdownNow();
+        }
+    }
+
+    /**
+     * A helper worker holding one reserved pool thread, which it gives back
+     * when it finishes. If the search ends before the helper starts, the
+     * search gives the thread back instead and the helper never runs, so a
+     * search never waits on a helper stuck in the queue.
+     */
+    private final class Helper implements Callable<SearchResult> {
+
+        private final SearchWorker worker;
+        // claimed by whichever comes first: the helper starting or the search abandoning it
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        Helper(SearchWorker worker) {
+            this.worker = worker;
+        }
+
+        @Override
+        public SearchResult call() {
+            if (!claimed.compareAndSet(false, true)) {
+                return null;
+            }
+            try {
+                return worker.run();
+            } finally {
+                idleHelpers.release();
+            }
+        }
+
+        /**
+         * @return true if the helper had not started, and now never will
+         */
+        boolean abandon() {
+            if (claimed.compareAndSet(false, true)) {
+                idleHelpers.release();
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package chess.engine;
+
+/**
+ * Budget for one search. The search stops at whichever limit it reaches
+ * first and answers with the best move of the deepest finished iteration.
+ * The factory methods search on one thread; see {@link #withThreads(int)}.
+ *
+ * @param depth      deepest iteration to search, in plies
+ * @param timeMillis wall clock budget in milliseconds
+ * @param nodes      number of positions each search thread may visit
+ * @param threads    how many threads search together, sharing the transposition table
+ */
+public record SearchLimits(int depth, long timeMillis, long nodes, int threads) {
+
+    /**
+     * Deepest iteration any search runs, leaving room in the per-ply buffers
+     * for check extensions and quiescence
+     */
+    public static final int MAX_DEPTH = 64;
+
+    public SearchLimits {
+        if (depth < 1 || depth > MAX_DEPTH) {
+            throw new IllegalArgumentException("Search depth must be between 1 and " + MAX_DEPTH + ": " + depth);
+        }
+        if (timeMillis <= 0) {
+            throw new IllegalArgumentException("Search time must be positive: " + timeMillis);
+        }
+        if (nodes <= 0) {
+            throw new IllegalArgumentException("Search node budget must be positive: " + nodes);
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("Search needs at least one thread: " + threads);
+        }
+    }
+
+    /**
+     * @return limits that stop only at the given depth
+     */
+    public static SearchLimits depth(int depth) {
+        return new SearchLimits(depth, Long.MAX_VALUE, Long.MAX_VALUE, 1);
+    }
+
+    /**
+     * @return limits that stop only when the time runs out
+     */
+    public static SearchLimits timeMillis(long timeMillis) {
+        return new SearchLimits(MAX_DEPTH, timeMillis, Long.MAX_VALUE, 1);
+    }
+
+    /**
+     * @return limits that stop only when the node budget runs out
+     */
+    public static SearchLimits nodes(long nodes) {
+        return new SearchLimits(MAX_DEPTH, Long.MAX_VALUE, nodes, 1);
+    }
+
+    public SearchLimits withDepth(int depth) {
+        return new SearchLimits(depth, timeMillis, nodes, threads);
+    }
+
+    public SearchLimits withTimeMillis(long timeMillis) {
+        return new SearchLimits(depth, timeMillis, nodes, threads);
+    }
+
+    public SearchLimits withNodes(long nodes) {
+        return new SearchLimits(depth, timeMillis, nodes, threads);
+    }
+
+    public SearchLimits withThreads(int threads) {
+        return new SearchLimits(depth, timeMillis, nodes, threads);
+    }
+}
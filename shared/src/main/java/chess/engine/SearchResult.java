@@ -0,0 +1,23 @@
+package chess.engine;
+
+import chess.ChessMove;
+
+/**
+ * Outcome of a search
+ *
+ * @param bestMove      the move to play, or null if the side to move has no legal move
+ * @param score         centipawns from the side to move's point of view; mate scores are
+ *                      within {@link SearchEngine#MAX_PLY} of {@link SearchEngine#MATE}
+ * @param depth         deepest iteration that finished, 0 if none did
+ * @param nodes         positions visited, including quiescence
+ * @param elapsedMillis wall clock time the search took
+ */
+public record SearchResult(ChessMove bestMove, int score, int depth, long nodes, long elapsedMillis) {
+
+    /**
+     * @return true if the score is a forced mate for either side
+     */
+    public boolean isMate() {
+        return Math.abs(score) >= SearchEngine.MATE - SearchEngine.MAX_PLY;
+    }
+}
@@ -0,0 +1,371 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.MoveList;
+import chess.PackedMove;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * State of one search thread: the game copy it moves on, per-ply move
+ * buffers and the node and time accounting. Everything a node needs is
+ * allocated up front, so the search itself does not allocate.
+ * <p>
+ * In a multi-threaded search every thread runs its own worker on the same
+ * root, sharing only the transposition table and a stop signal. Worker 0
+ * is the main worker whose answer is used; helpers start at a different
+ * depth so the threads spread out over the tree and fill the table with
+ * results the others can reuse.
+ * <p>
+ * Draws are scored the way the game will declare them: a position is a draw
+ * once it repeats within the search line, when the game had already reached
+ * it twice before the root, or when the fifty-move clock runs out.
+ */
+final class SearchWorker {
+
+    private static final int INFINITY = SearchEngine.MATE + 1;
+    // how many nodes pass between clock reads
+    private static final int TIME_CHECK_MASK = 1023;
+    // plies without a pawn move or capture after which the game is drawn
+    private static final int FIFTY_MOVE_PLIES = 100;
+
+    // move ordering scores; captures are ordered most valuable victim, least valuable attacker
+    private static final int BEST_MOVE_SCORE = 1 << 20;
+    private static final int CAPTURE_SCORE = 1 << 16;
+    private static final int PROMOTION_SCORE = 1 << 15;
+    // piece values for ordering captures, indexed by PieceType ordinal
+    private static final int[] ORDERING_VALUES = {0, 900, 330, 320, 500, 100};
+
+    private final ChessGame game;
+    private final SearchLimits limits;
+    private final TranspositionTable table;
+    private final int id;
+    // set once the main worker has its answer, so helpers stop too
+    private final AtomicBoolean stopSignal;
+    private final long startNanos;
+    private final long deadlineNanos;
+
+    private final MoveList rootMoves = new MoveList();
+    private final MoveList[] moveLists = new MoveList[SearchEngine.MAX_PLY];
+    private final int[][] orderScores = new int[SearchEngine.MAX_PLY][256];
+    // position key at each ply of the current line, for spotting repetitions
+    private final long[] lineKeys = new long[SearchEngine.MAX_PLY + 1];
+    // halfmove clock at each ply of the current line
+    private final int[] halfmoveClocks = new int[SearchEngine.MAX_PLY + 1];
+
+    private long nodes;
+    private boolean stopped;
+
+    SearchWorker(ChessGame game, SearchLimits limits, TranspositionTable table, int id, AtomicBoolean stopSignal) {
+        this.game = new ChessGame(game);
+        this.limits = limits;
+        this.table = table;
+        this.id = id;
+        this.stopSignal = stopSignal;
+        this.startNanos = System.nanoTime();
+        // an unlimited time budget would overflow when converted to nanoseconds
+        long budgetNanos = limits.timeMillis() > Long.MAX_VALUE / 4_000_000 ? Long.MAX_VALUE / 4
+                : limits.timeMillis() * 1_000_000;
+        this.deadlineNanos = startNanos + budgetNanos;
+        for (int ply = 0; ply < moveLists.length; ply++) {
+            moveLists[ply] = new MoveList();
+        }
+    }
+
+    /**
+     * Runs iterative deepening until a limit is reached or a forced mate is found
+     */
+    SearchResult run() {
+        game.generateLegalMoves(game.getTeamTurn(), rootMoves);
+        if (rootMoves.isEmpty()) {
+            int score = game.isInCheck(game.getTeamTurn()) ? -SearchEngine.MATE : 0;
+            return result(PackedMove.NONE, score, 0);
+        }
+
+        lineKeys[0] = game.getZobristKey();
+        halfmoveClocks[0] = game.getHalfmoveClock();
+        int bestMove = rootMoves.get(0);
+        long rootEntry = table.probe(lineKeys[0]);
+        if (rootEntry != TranspositionTable.NO_ENTRY && contains(rootMoves, TranspositionTable.move(rootEntry))) {
+            bestMove = TranspositionTable.move(rootEntry); // try the last search's choice first
+        }
+        int bestScore = 0;
+        int completedDepth = 0;
+        if (stopSignal.get()) {
+            return result(bestMove, bestScore, completedDepth); // a helper started after the search ended
+        }
+        // every other helper skips the first depth, so threads work on different depths at once
+        int firstDepth = Math.min(1 + (id & 1), limits.depth());
+        for (int depth = firstDepth; depth <= limits.depth(); depth++) {
+            int iterationBest = PackedMove.NONE;
+            int alpha = -INFINITY;
+            scoreMoves(rootMoves, rootMoves.size(), orderScores[0], bestMove);
+            for (int i = 0; i < rootMoves.size(); i++) {
+                int move = pickNext(rootMoves, orderScores[0], i);
+                long undo = makeMove(move, 0);
+                int score = -search(depth - 1, -INFINITY, -alpha, 1);
+                game.unmakeMove(undo);
+                if (stopped) {
+                    break;
+                }
+                if (score > alpha) {
+                    alpha = score;
+                    iterationBest = move;
+                }
+            }
+            if (stopped) {
+                break; // a partly searched depth cannot be trusted
+            }
+            bestMove = iterationBest;
+            bestScore = alpha;
+            completedDepth = depth;
+            table.store(lineKeys[0], bestMove, bestScore, depth, TranspositionTable.EXACT, 0);
+            if (stopSignal.get()) {
+                break;
+            }
+            if (Math.abs(bestScore) >= SearchEngine.MATE - SearchEngine.MAX_PLY) {
+                break; // deeper searches cannot find a faster mate
+            }
+        }
+        return result(bestMove, bestScore, completedDepth);
+    }
+
+    private int search(int depth, int alpha, int beta, int ply) {
+        lineKeys[ply] = game.getZobristKey();
+        if (isRepetition(ply)) {
+            return 0;
+        }
+        ChessGame.TeamColor turn = game.getTeamTurn();
+        boolean inCheck = game.isInCheck(turn);
+        boolean fiftyMoves = halfmoveClocks[ply] >= FIFTY_MOVE_PLIES;
+        if (fiftyMoves && !inCheck) {
+            return 0; // in check, a mate still beats the fifty-move rule, so wait for the move list
+        }
+        if (inCheck) {
+            depth++; // never stop searching in the middle of a check
+        }
+        if (depth <= 0) {
+            return quiesce(alpha, beta, ply);
+        }
+        if (countNode()) {
+            return 0;
+        }
+        if (ply >= SearchEngine.MAX_PLY - 1) {
+            return Evaluation.evaluate(game);
+        }
+
+        long key = lineKeys[ply];
+        int hashMove = PackedMove.NONE;
+        long entry = table.probe(key);
+        if (entry != TranspositionTable.NO_ENTRY) {
+            hashMove = TranspositionTable.move(entry);
+            if (TranspositionTable.depth(entry) >= depth) {
+                int stored = TranspositionTable.score(entry, ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER_BOUND && stored >= beta)
+                        || (bound == TranspositionTable.UPPER_BOUND && stored <= alpha)) {
+                    return bound == TranspositionTable.EXACT ? stored : (stored >= beta ? beta : alpha);
+                }
+            }
+        }
+
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        game.generateLegalMoves(turn, moves);
+        if (moves.isEmpty()) {
+            return inCheck ? -SearchEngine.MATE + ply : 0;
+        }
+        if (fiftyMoves) {
+            return 0;
+        }
+        int[] scores = orderScores[ply];
+        scoreMoves(moves, moves.size(), scores, hashMove);
+        int bestMove = PackedMove.NONE;
+        int bound = TranspositionTable.UPPER_BOUND;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = pickNext(moves, scores, i);
+            long undo = makeMove(move, ply);
+            int score = -search(depth - 1, -beta, -alpha, ply + 1);
+            game.unmakeMove(undo);
+            if (stopped) {
+                return 0;
+            }
+            if (score >= beta) {
+                table.store(key, move, beta, depth, TranspositionTable.LOWER_BOUND, ply);
+                return beta;
+            }
+            if (score > alpha) {
+                alpha = score;
+                bestMove = move;
+                bound = TranspositionTable.EXACT;
+            }
+        }
+        table.store(key, bestMove, alpha, depth, bound, ply);
+        return alpha;
+    }
+
+    /**
+     * Searches captures and promotions only, so a position is not evaluated
+     * in the middle of an exchange. The side to move may also stand pat.
+     */
+    private int quiesce(int alpha, int beta, int ply) {
+        if (countNode()) {
+            return 0;
+        }
+        int standPat = Evaluation.evaluate(game);
+        if (standPat >= beta) {
+            return beta;
+        }
+        if (ply >= SearchEngine.MAX_PLY - 1) {
+            return standPat;
+        }
+        if (standPat > alpha) {
+            alpha = standPat;
+        }
+
+        MoveList moves = moveLists[ply];
+        moves.clear();
+        game.generateLegalMoves(game.getTeamTurn(), moves);
+        // keep only the forcing moves, compacting them to the front of the list
+        int forcing = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            if (PackedMove.hasFlag(move, PackedMove.CAPTURE) || PackedMove.promotionType(move) >= 0) {
+                moves.set(forcing++, move);
+            }
+        }
+        int[] scores = orderScores[ply];
+        scoreMoves(moves, forcing, scores, PackedMove.NONE);
+        for (int i = 0; i < forcing; i++) {
+            int move = pickNext(moves, scores, i, forcing);
+            long undo = game.makeMoveUnchecked(move);
+            int score = -quiesce(-beta, -alpha, ply + 1);
+            game.unmakeMove(undo);
+            if (stopped) {
+                return 0;
+            }
+            if (score >= beta) {
+                return beta;
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+        }
+        return alpha;
+    }
+
+    private static boolean contains(MoveList moves, int move) {
+        for (int i = 0; i < moves.size(); i++) {
+            if (moves.get(i) == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Makes a move of the main search and sets the halfmove clock of the ply after it
+     */
+    private long makeMove(int move, int ply) {
+        boolean irreversible = PackedMove.hasFlag(move, PackedMove.CAPTURE)
+                || typeAt(PackedMove.from(move)) == ChessPiece.PieceType.PAWN;
+        halfmoveClocks[ply + 1] = irreversible ? 0 : halfmoveClocks[ply] + 1;
+        return game.makeMoveUnchecked(move);
+    }
+
+    /**
+     * @return true if the position at this ply already occurred earlier in the
+     * line with the same side to move, or twice in the game before the root,
+     * either of which is scored as a draw
+     */
+    private boolean isRepetition(int ply) {
+        if (game.getRepetitionCount(lineKeys[ply]) >= 2) {
+            return true;
+        }
+        // nothing before the last pawn move or capture can come back
+        int oldest = Math.max(0, ply - halfmoveClocks[ply]);
+        for (int earlier = ply - 2; earlier >= oldest; earlier -= 2) {
+            if (lineKeys[earlier] == lineKeys[ply]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Counts a visited node and checks the budget
+     *
+     * @return true if the search has to stop
+     */
+    private boolean countNode() {
+        nodes++;
+        if (nodes >= limits.nodes()) {
+            stopped = true;
+        } else if ((nodes & TIME_CHECK_MASK) == 0
+                && (stopSignal.get() || System.nanoTime() - deadlineNanos > 0)) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    private void scoreMoves(MoveList moves, int count, int[] scores, int bestMove) {
+        for (int i = 0; i < count; i++) {
+            int move = moves.get(i);
+            int score = 0;
+            if (move == bestMove) {
+                score = BEST_MOVE_SCORE;
+            } else if (PackedMove.hasFlag(move, PackedMove.CAPTURE)) {
+                int victim = PackedMove.hasFlag(move, PackedMove.EN_PASSANT)
+                        ? ORDERING_VALUES[ChessPiece.PieceType.PAWN.ordinal()]
+                        : ORDERING_VALUES[typeAt(PackedMove.to(move)).ordinal()];
+                int attacker = ORDERING_VALUES[typeAt(PackedMove.from(move)).ordinal()];
+                score = CAPTURE_SCORE + victim * 8 - attacker / 8;
+            }
+            if (PackedMove.promotionType(move) >= 0) {
+                score += PROMOTION_SCORE + ORDERING_VALUES[PackedMove.promotionType(move)];
+            }
+            scores[i] = score;
+        }
+    }
+
+    private ChessPiece.PieceType typeAt(int square) {
+        // positions and pieces are cached, so this lookup does not allocate
+        return game.getBoard().getPiece(ChessPosition.of(square / 8 + 1, square % 8 + 1)).getPieceType();
+    }
+
+    private static int pickNext(MoveList moves, int[] scores, int index) {
+        return pickNext(moves, scores, index, moves.size());
+    }
+
+    /**
+     * Swaps the best scored move from index onward into index and returns it.
+     * Selecting lazily is cheaper than sorting, since most nodes cut off after
+     * trying a move or two.
+     */
+    private static int pickNext(MoveList moves, int[] scores, int index, int size) {
+        int best = index;
+        for (int i = index + 1; i < size; i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        int move = moves.get(best);
+        if (best != index) {
+            moves.set(best, moves.get(index));
+            moves.set(index, move);
+            int score = scores[best];
+            scores[best] = scores[index];
+            scores[index] = score;
+        }
+        return move;
+    }
+
+    private SearchResult result(int bestMove, int score, int depth) {
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        return new SearchResult(bestMove == PackedMove.NONE ? null : PackedMove.toChessMove(bestMove),
+                score, depth, nodes, elapsedMillis);
+    }
+}
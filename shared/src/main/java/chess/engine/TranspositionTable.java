@@ -0,0 +1,166 @@
+package chess.engine;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size hash table of search results, keyed by position Zobrist key
+ * and shared by any number of searches and threads without locking.
+ * <p>
+ * Each entry is two longs in one flat array: the key XORed with the data,
+ * then the data. Writers store both words with plain writes, so two threads
+ * writing the same slot at once can leave one thread's key word next to the
+ * other's data word. A reader XORs the two words back together and only
+ * trusts the entry if that gives the key it asked for, which a torn entry
+ * almost never does. The table never grows, so memory stays flat however
+ * many games are searched.
+ * <p>
+ * Data layout: bits 0-19 packed move, bits 20-39 score + {@link #SCORE_OFFSET},
+ * bits 40-47 depth, bits 48-49 bound, bits 50-57 search generation. The bound
+ * is never 0, so a stored data word is never 0 either.
+ */
+public final class TranspositionTable {
+
+    public static final int DEFAULT_MEGABYTES = 16;
+
+    // what the stored score says about the true score
+    static final int EXACT = 1;
+    static final int LOWER_BOUND = 2;
+    static final int UPPER_BOUND = 3;
+
+    /**
+     * Returned by {@link #probe(long)} when the table holds nothing for a key
+     */
+    static final long NO_ENTRY = 0L;
+
+    private static final int ENTRY_BYTES = 16;
+    private static final int SCORE_OFFSET = 1 << 19;
+    private static final int MOVE_MASK = (1 << 20) - 1;
+    private static final int MATE_THRESHOLD = SearchEngine.MATE - SearchEngine.MAX_PLY;
+
+    private final long[] table;
+    private final int slotMask;
+    // bumped by every search, so entries left by earlier searches are replaced first
+    private int generation;
+
+    /**
+     * @param megabytes memory budget; the table uses the largest power of two
+     *                  number of entries that fits in it
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1 || megabytes > 1024) {
+            throw new IllegalArgumentException("Transposition table size must be 1-1024 MB: " + megabytes);
+        }
+        long entries = Long.highestOneBit((long) megabytes * 1024 * 1024 / ENTRY_BYTES);
+        table = new long[(int) (entries * 2)];
+        slotMask = (int) entries - 1;
+    }
+
+    /**
+     * @return number of entries the table holds
+     */
+    public int capacity() {
+        return slotMask + 1;
+    }
+
+    /**
+     * Forgets every entry. Not safe to call while a search is using the table.
+     */
+    public void clear() {
+        Arrays.fill(table, 0L);
+    }
+
+    /**
+     * Starts a new search generation; entries from older generations are
+     * replaced even by shallower results
+     */
+    void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    /**
+     * @param key position Zobrist key
+     * @return the entry's data word, or {@link #NO_ENTRY} if the slot holds
+     * another position or a torn write
+     */
+    long probe(long key) {
+        int index = index(key);
+        long data = table[index + 1];
+        return (table[index] ^ data) == key ? data : NO_ENTRY;
+    }
+
+    /**
+     * Stores a search result, unless the slot holds a deeper result for
+     * another position from the current search
+     *
+     * @param key   position Zobrist key
+     * @param move  best or refuting packed move, or 0 if none is known
+     * @param score score found at this node
+     * @param depth remaining depth the score was searched to
+     * @param bound {@link #EXACT}, {@link #LOWER_BOUND} or {@link #UPPER_BOUND}
+     * @param ply   distance from the root, to store mate scores relative to this node
+     */
+    void store(long key, int move, int score, int depth, int bound, int ply) {
+        int index = index(key);
+        long oldData = table[index + 1];
+        boolean samePosition = (table[index] ^ oldData) == key;
+        if (!samePosition && oldData != NO_ENTRY && generation(oldData) == generation && depth(oldData) > depth) {
+            return;
+        }
+        if (move == 0 && samePosition) {
+            move = move(oldData); // keep the old best move for ordering
+        }
+        long data = (move & MOVE_MASK)
+                | ((long) (toStored(score, ply) + SCORE_OFFSET) << 20)
+                | ((long) Math.min(depth, 0xFF) << 40)
+                | ((long) bound << 48)
+                | ((long) generation << 50);
+        table[index] = key ^ data;
+        table[index + 1] = data;
+    }
+
+    static int move(long data) {
+        return (int) (data & MOVE_MASK);
+    }
+
+    /**
+     * @param ply distance from the root of the probing search
+     * @return the stored score, with mate scores made relative to the root again
+     */
+    static int score(long data, int ply) {
+        int score = (int) ((data >>> 20) & 0xFFFFF) - SCORE_OFFSET;
+        if (score >= MATE_THRESHOLD) {
+            return score - ply;
+        }
+        if (score <= -MATE_THRESHOLD) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    static int depth(long data) {
+        return (int) ((data >>> 40) & 0xFF);
+    }
+
+    static int bound(long data) {
+        return (int) ((data >>> 48) & 0x3);
+    }
+
+    private static int generation(long data) {
+        return (int) ((data >>> 50) & 0xFF);
+    }
+
+    // mate scores count plies from the root; stored, they count from this node
+    private static int toStored(int score, int ply) {
+        if (score >= MATE_THRESHOLD) {
+            return score + ply;
+        }
+        if (score <= -MATE_THRESHOLD) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private int index(long key) {
+        return ((int) key & slotMask) << 1;
+    }
+}
@@ -0,0 +1,29 @@
+package serialization;
+
+import chess.ChessBoard;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Writes a board as its FEN piece placement string
+ */
+class ChessBoardAdapter extends TypeAdapter<ChessBoard> {
+
+    @Override
+    public void write(JsonWriter out, ChessBoard board) throws IOException {
+        out.value(board.toFen());
+    }
+
+    @Override
+    public ChessBoard read(JsonReader in) throws IOException {
+        try {
+            return ChessBoard.fromFen(in.nextString());
+        } catch (IllegalArgumentException e) {
+            throw new JsonParseException(e.getMessage() + " at " + in.getPath(), e);
+        }
+    }
+}
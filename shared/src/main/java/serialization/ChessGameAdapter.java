@@ -0,0 +1,52 @@
+package serialization;
+
+import chess.ChessGame;
+import chess.GameCodec;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.Base64;
+
+/**
+ * Writes a game as {"state":"&lt;Base64 of its GameCodec encoding&gt;"}.
+ * <p>
+ * The encoding is the one games are stored in, so castling rights, the en
+ * passant file, the halfmove clock, the ply count and the repetition counts
+ * all survive the trip to the client, and its legal moves and draw checks
+ * agree with the server's.
+ */
+class ChessGameAdapter extends TypeAdapter<ChessGame> {
+
+    @Override
+    public void write(JsonWriter out, ChessGame game) throws IOException {
+        out.beginObject();
+        out.name("state").value(Base64.getEncoder().encodeToString(GameCodec.encode(game)));
+        out.endObject();
+    }
+
+    @Override
+    public ChessGame read(JsonReader in) throws IOException {
+        String state = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            if (in.nextName().equals("state")) {
+                state = in.nextString();
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        if (state == null) {
+            throw new JsonParseException("Game needs a state at " + in.getPath());
+        }
+
+        try {
+            return GameCodec.decode(Base64.getDecoder().decode(state));
+        } catch (IllegalArgumentException e) {
+            throw new JsonParseException(e.getMessage() + " at " + in.getPath(), e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package serialization;
+
+import chess.ChessGame;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Gson adapter that writes a ChessGame as its FEN string, about 60 bytes
+ * instead of the reflective dump of the board.
+ * <p>
+ * FEN has no field for a finished game, so the game over flag does not
+ * survive a round trip. Register it only where that is acceptable, e.g.
+ * <pre>
+ * new GsonBuilder().registerTypeAdapter(ChessGame.class, new FenGameAdapter().nullSafe())
+ * </pre>
+ */
+public class FenGameAdapter extends TypeAdapter<ChessGame> {
+
+    @Override
+    public void write(JsonWriter out, ChessGame game) throws IOException {
+        out.value(game.toFen());
+    }
+
+    @Override
+    public ChessGame read(JsonReader in) throws IOException {
+        if (in.peek() != JsonToken.STRING) {
+            throw new JsonParseException("Expected a FEN string at " + in.getPath());
+        }
+        try {
+            return ChessGame.fromFen(in.nextString());
+        } catch (IllegalArgumentException e) {
+            throw new JsonParseException(e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package serialization;
+
+import chess.ChessBoard;
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import websocket.commands.UserGameCommand;
+import websocket.messages.ServerMessage;
+
+import java.io.IOException;
+
+/**
+ * The one place Gson is configured for chess and websocket types. Every type
+ * sent between client and server, or stored, has a hand-written streaming
+ * adapter here, so encoding and decoding never reflect over fields.
+ * <p>
+ * Moves, pieces, positions and user commands keep the same field names the
+ * reflective layout used, so either side can still talk to a plain Gson.
+ * Boards use a compact layout, their FEN piece placement, and games carry
+ * their full binary GameCodec encoding so no position state is lost.
+ */
+public final class GsonFactory {
+
+    private static final Gson GSON = builder().create();
+
+    private GsonFactory() {
+    }
+
+    /**
+     * @return the shared, thread-safe Gson instance
+     */
+    public static Gson gson() {
+        return GSON;
+    }
+
+    /**
+     * @return a builder with every adapter registered, for callers that need
+     * further configuration
+     */
+    public static GsonBuilder builder() {
+        return new GsonBuilder()
+                .registerTypeAdapter(ChessPosition.class, new ChessPositionAdapter().nullSafe())
+                .registerTypeAdapter(ChessMove.class, new ChessMoveAdapter().nullSafe())
+                .registerTypeAdapter(ChessPiece.class, new ChessPieceAdapter().nullSafe())
+                .registerTypeAdapter(ChessBoard.class, new ChessBoardAdapter().nullSafe())
+                .registerTypeAdapter(ChessGame.class, new ChessGameAdapter().nullSafe())
+                .registerTypeAdapter(UserGameCommand.class, new UserGameCommandAdapter().nullSafe())
+                .registerTypeHierarchyAdapter(ServerMessage.class, new ServerMessageAdapter().nullSafe());
+    }
+
+    static <E extends Enum<E>> E readEnum(JsonReader in, Class<E> type) throws IOException {
+        String name = in.nextString();
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException e) {
+            throw new JsonParseException("Unknown " + type.getSimpleName() + " '" + name + "' at " + in.getPath());
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package serialization;
+
+import chess.ChessGame;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import websocket.messages.ErrorMessage;
+import websocket.messages.LoadGameMessage;
+import websocket.messages.NotificationMessage;
+import websocket.messages.ServerMessage;
+
+import java.io.IOException;
+
+/**
+ * Writes every server message as {"serverMessageType":..} plus the field of
+ * its subclass (game, message or errorMessage), and reads it back as the
+ * subclass its type names, whichever order the fields come in
+ */
+class ServerMessageAdapter extends TypeAdapter<ServerMessage> {
+
+    private final ChessGameAdapter gameAdapter = new ChessGameAdapter();
+
+    @Override
+    public void write(JsonWriter out, ServerMessage message) throws IOException {
+        out.beginObject();
+        out.name("serverMessageType").value(message.getServerMessageType().name());
+        if (message instanceof LoadGameMessage loadGame && loadGame.getGame() != null) {
+            out.name("game");
+            gameAdapter.write(out, loadGame.getGame());
+        } else if (message instanceof NotificationMessage notification && notification.getMessage() != null) {
+            out.name("message").value(notification.getMessage());
+        } else if (message instanceof ErrorMessage error && error.getErrorMessage() != null) {
+            out.name("errorMessage").value(error.getErrorMessage());
+        }
+        out.endObject();
+    }
+
+    @Override
+    public ServerMessage read(JsonReader in) throws IOException {
+        ServerMessage.ServerMessageType type = null;
+        ChessGame game = null;
+        String message = null;
+        String errorMessage = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "serverMessageType" -> type = GsonFactory.readEnum(in, ServerMessage.ServerMessageType.class);
+                case "game" -> game = gameAdapter.read(in);
+                case "message" -> message = in.nextString();
+                case "errorMessage" -> errorMessage = in.nextString();
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        if (type == null) {
+            throw new JsonParseException("Server message needs a serverMessageType at " + in.getPath());
+        }
+        return switch (type) {
+            case LOAD_GAME -> new LoadGameMessage(game);
+            case NOTIFICATION -> new NotificationMessage(message);
+            case ERROR -> new ErrorMessage(errorMessage);
+        };
+    }
+}
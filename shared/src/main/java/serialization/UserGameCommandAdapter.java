@@ -0,0 +1,73 @@
+package serialization;
+
+import chess.ChessMove;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import websocket.commands.UserGameCommand;
+
+import java.io.IOException;
+
+/**
+ * Writes a command with the field names of the reflective layout,
+ * {"commandType":..,"authToken":..,"gameID":..,"move":{..}}, leaving out
+ * null fields
+ */
+class UserGameCommandAdapter extends TypeAdapter<UserGameCommand> {
+
+    private final ChessMoveAdapter moveAdapter = new ChessMoveAdapter();
+
+    @Override
+    public void write(JsonWriter out, UserGameCommand command) throws IOException {
+        out.beginObject();
+        if (command.getCommandType() != null) {
+            out.name("commandType").value(command.getCommandType().name());
+        }
+        if (command.getAuthToken() != null) {
+            out.name("authToken").value(command.getAuthToken());
+        }
+        if (command.getGameID() != null) {
+            out.name("gameID").value(command.getGameID());
+        }
+        if (command.getMove() != null) {
+            out.name("move");
+            moveAdapter.write(out, command.getMove());
+        }
+        out.endObject();
+    }
+
+    @Override
+    public UserGameCommand read(JsonReader in) throws IOException {
+        UserGameCommand.CommandType commandType = null;
+        String authToken = null;
+        Integer gameID = null;
+        ChessMove move = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "commandType" -> commandType = GsonFactory.readEnum(in, UserGameCommand.CommandType.class);
+                case "authToken" -> authToken = in.nextString();
+                case "gameID" -> gameID = readInt(in);
+                case "move" -> move = moveAdapter.read(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return new UserGameCommand(commandType, authToken, gameID, move);
+    }
+
+    private static int readInt(JsonReader in) throws IOException {
+        try {
+            return in.nextInt();
+        } catch (NumberFormatException e) {
+            throw new JsonParseException("Expected an integer game ID at " + in.getPath(), e);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchAnalysisTests {
+
+    @Test
+    void statusesComeBackInInputOrder() {
+        ChessGame start = new ChessGame();
+        List<ChessGame> games = List.of(
+                ChessGame.fromFen("6k1/5ppp/8/8/8/8/5PPP/R5K1 w - - 0 1"),
+                ChessGame.fromFen("R5k1/5ppp/8/8/8/8/5PPP/6K1 b - - 1 1"),
+                ChessGame.fromFen("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1"),
+                ChessGame.fromFen("4k3/8/8/8/8/8/8/4K2R b K - 0 1"),
+                ChessGame.fromFen("4k3/8/8/8/8/8/8/4K2R b K - 100 80"),
+                start,
+                start);
+
+        assertEquals(List.of(
+                ChessGame.GameStatus.NORMAL,
+                ChessGame.GameStatus.CHECKMATE,
+                ChessGame.GameStatus.STALEMATE,
+                ChessGame.GameStatus.NORMAL,
+                ChessGame.GameStatus.DRAW_BY_FIFTY_MOVES,
+                ChessGame.GameStatus.NORMAL,
+                ChessGame.GameStatus.NORMAL), BatchAnalysis.evaluateStatuses(games));
+    }
+
+    @Test
+    void largeBatchMatchesSequentialEvaluation() {
+        List<ChessGame> games = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            games.add(i % 3 == 0
+                    ? ChessGame.fromFen("R5k1/5ppp/8/8/8/8/5PPP/6K1 b - - 1 1")
+                    : new ChessGame());
+        }
+        Collections.shuffle(games, new Random(3));
+
+        List<ChessGame.GameStatus> expected = new ArrayList<>();
+        for (ChessGame game : games) {
+            expected.add(new ChessGame(game).evaluateStatus(game.getTeamTurn()));
+        }
+        assertEquals(expected, BatchAnalysis.evaluateStatuses(games));
+    }
+}
@@ -0,0 +1,49 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BitboardsTests {
+
+    @Test
+    void magicAttacksMatchRayWalk() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int sq = 0; sq < 64; sq++) {
+            for (int trial = 0; trial < 200; trial++) {
+                long occupied = random.nextLong() & random.nextLong();
+                assertEquals(walk(sq, occupied, new int[][]{{1, 0}, {-1, 0}, {0, 1}, {0, -1}}),
+                        Bitboards.rookAttacks(sq, occupied), "Wrong rook attacks from square " + sq);
+                assertEquals(walk(sq, occupied, new int[][]{{1, 1}, {-1, 1}, {-1, -1}, {1, -1}}),
+                        Bitboards.bishopAttacks(sq, occupied), "Wrong bishop attacks from square " + sq);
+            }
+        }
+    }
+
+    @Test
+    void emptyBoardRookSeesWholeRankAndFile() {
+        int d4 = Bitboards.square(4, 4);
+        assertEquals(14, Long.bitCount(Bitboards.rookAttacks(d4, 0L)));
+        assertEquals(13, Long.bitCount(Bitboards.bishopAttacks(d4, 0L)));
+    }
+
+    private static long walk(int square, long occupied, int[][] directions) {
+        long attacks = 0L;
+        for (int[] direction : directions) {
+            int row = Bitboards.row(square) + direction[0];
+            int col = Bitboards.column(square) + direction[1];
+            while (Bitboards.onBoard(row, col)) {
+                long target = Bitboards.bit(Bitboards.square(row, col));
+                attacks |= target;
+                if ((occupied & target) != 0) {
+                    break;
+                }
+                row += direction[0];
+                col += direction[1];
+            }
+        }
+        return attacks;
+    }
+}
@@ -0,0 +1,68 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+import passoff.chess.TestUtilities;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChessBoardMakeMoveTests {
+
+    @Test
+    void makeAndUnmakeCaptureRestoresBoard() {
+        ChessBoard board = TestUtilities.loadBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |p| | | | |
+                | | | | |P| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |K| | | |
+                """);
+        ChessBoard original = new ChessBoard(board);
+
+        int undo = board.makeMove(new ChessMove(new ChessPosition(4, 5), new ChessPosition(5, 4), null));
+
+        assertNull(board.getPiece(new ChessPosition(4, 5)), "Start square should be empty");
+        assertEquals(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN),
+                board.getPiece(new ChessPosition(5, 4)), "Pawn should have captured on d5");
+
+        board.unmakeMove(undo);
+        assertEquals(original, board, "Unmake should restore the captured piece");
+    }
+
+    @Test
+    void makeAndUnmakePromotionRestoresPawn() {
+        ChessBoard board = TestUtilities.loadBoard("""
+                | | | | |k| |n| |
+                | | | | | | | |P|
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |K| | | |
+                """);
+        ChessBoard original = new ChessBoard(board);
+
+        int undo = board.makeMove(new ChessMove(new ChessPosition(7, 8), new ChessPosition(8, 7),
+                ChessPiece.PieceType.QUEEN));
+        assertEquals(new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN),
+                board.getPiece(new ChessPosition(8, 7)), "Pawn should have promoted");
+
+        board.unmakeMove(undo);
+        assertEquals(original, board, "Unmake should restore the pawn and captured knight");
+    }
+
+    @Test
+    void offBoardPositionsAreRejected() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        ChessBoard original = new ChessBoard(board);
+
+        assertThrows(IllegalArgumentException.class, () -> board.getPiece(new ChessPosition(0, 5)));
+        assertThrows(IllegalArgumentException.class, () -> board.addPiece(new ChessPosition(9, 1),
+                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN)));
+        assertEquals(original, board, "A rejected addPiece should leave the board untouched");
+    }
+}
@@ -0,0 +1,72 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DrawRuleTests {
+
+    private static final ChessMove WHITE_OUT = new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null);
+    private static final ChessMove BLACK_OUT = new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null);
+    private static final ChessMove WHITE_BACK = new ChessMove(new ChessPosition(3, 6), new ChessPosition(1, 7), null);
+    private static final ChessMove BLACK_BACK = new ChessMove(new ChessPosition(6, 6), new ChessPosition(8, 7), null);
+
+    @Test
+    void threefoldRepetition() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        shuffleKnights(game);
+        assertEquals(2, game.getRepetitionCount());
+        assertEquals(ChessGame.GameStatus.NORMAL, game.evaluateStatus(ChessGame.TeamColor.WHITE));
+
+        shuffleKnights(game);
+        assertEquals(3, game.getRepetitionCount());
+        assertEquals(ChessGame.GameStatus.DRAW_BY_REPETITION, game.evaluateStatus(ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    void pawnMoveResetsRepetitionAndClock() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        shuffleKnights(game);
+        assertEquals(4, game.getHalfmoveClock());
+
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        assertEquals(0, game.getHalfmoveClock());
+        assertEquals(1, game.getRepetitionCount());
+    }
+
+    @Test
+    void repetitionTableSkipsZeroCountsAndGrowsOnlyForNewKeys() {
+        RepetitionTable table = new RepetitionTable();
+        table.put(1L, 0);
+        assertTrue(table.isEmpty(), "A zero count should not take a slot");
+
+        for (long key = 1; key <= 16; key++) {
+            table.put(key, 1);
+        }
+        for (int i = 0; i < 100; i++) {
+            table.put(7L, 2);
+        }
+        assertEquals(16, table.size());
+        assertEquals(2, table.count(7L));
+        assertEquals(1, table.count(16L));
+    }
+
+    @Test
+    void fiftyMoveRule() throws InvalidMoveException {
+        byte[] encoded = GameCodec.encode(new ChessGame());
+        encoded[4] = 99; // halfmove clock
+        ChessGame game = GameCodec.decode(encoded);
+        assertEquals(ChessGame.GameStatus.NORMAL, game.evaluateStatus(ChessGame.TeamColor.WHITE));
+
+        game.makeMove(WHITE_OUT);
+        assertEquals(100, game.getHalfmoveClock());
+        assertEquals(ChessGame.GameStatus.DRAW_BY_FIFTY_MOVES, game.evaluateStatus(ChessGame.TeamColor.BLACK));
+    }
+
+    private static void shuffleKnights(ChessGame game) throws InvalidMoveException {
+        game.makeMove(WHITE_OUT);
+        game.makeMove(BLACK_OUT);
+        game.makeMove(WHITE_BACK);
+        game.makeMove(BLACK_BACK);
+    }
+}
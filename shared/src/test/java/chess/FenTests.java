@@ -0,0 +1,86 @@
+package chess;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.junit.jupiter.api.Test;
+import serialization.FenGameAdapter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FenTests {
+
+    private static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    @Test
+    void startPositionToFen() {
+        assertEquals(START, new ChessGame().toFen());
+    }
+
+    @Test
+    void fenRoundTrip() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+
+        String fen = game.toFen();
+        assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1", fen);
+        assertEquals(game, ChessGame.fromFen(fen));
+    }
+
+    @Test
+    void readsPlacementAndSideOnly() {
+        ChessGame game = ChessGame.fromFen("8/8/8/8/8/8/8/4K2k b");
+        assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+        assertEquals(new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING),
+                game.getBoard().getPiece(new ChessPosition(1, 8)));
+    }
+
+    @Test
+    void readsCastlingEnPassantAndCounters() {
+        String fen = "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w Kq f6 0 3";
+        ChessGame game = ChessGame.fromFen(fen);
+
+        assertEquals(fen, game.toFen());
+        assertEquals(4, game.getPlyCount());
+        assertTrue(game.validMoves(new ChessPosition(5, 5))
+                .contains(new ChessMove(new ChessPosition(5, 5), new ChessPosition(6, 6), null)), "exf6 should be legal");
+        assertFalse(game.validMoves(new ChessPosition(5, 5))
+                .contains(new ChessMove(new ChessPosition(5, 5), new ChessPosition(6, 4), null)), "exd6 has expired");
+    }
+
+    @Test
+    void dropsEnPassantSquareNoPawnCanCapture() throws InvalidMoveException {
+        ChessGame played = new ChessGame();
+        played.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        ChessGame loaded = ChessGame.fromFen("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1");
+
+        assertEquals(played, loaded);
+        assertEquals(played.getZobristKey(), loaded.getZobristKey());
+        assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1", loaded.toFen());
+    }
+
+    @Test
+    void rejectsMalformedFen() {
+        assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w"));
+        assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("rnbqkbnr/ppppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w"));
+        assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNX w"));
+        assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen(START.replace(" w ", " x ")));
+        assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen(START.replace("KQkq", "KQxq")));
+        assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen(START.replace(" - ", " e4 ")));
+        assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen(START + " 7"));
+        assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen("   "));
+    }
+
+    @Test
+    void toleratesExtraWhitespaceBetweenFields() {
+        assertEquals(new ChessGame(), ChessGame.fromFen("  " + START.replace(" ", " \t ") + "\n"));
+    }
+
+    @Test
+    void gsonAdapterWritesFenString() {
+        Gson gson = new GsonBuilder().registerTypeAdapter(ChessGame.class, new FenGameAdapter().nullSafe()).create();
+        String json = gson.toJson(new ChessGame());
+
+        assertEquals("\"" + START + "\"", json);
+        assertEquals(new ChessGame(), gson.fromJson(json, ChessGame.class));
+    }
+}
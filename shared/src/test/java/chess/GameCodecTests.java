@@ -0,0 +1,65 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameCodecTests {
+
+    @Test
+    void roundTripsGameInProgress() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(7, 4), new ChessPosition(5, 4), null));
+        game.makeMove(new ChessMove(new ChessPosition(4, 5), new ChessPosition(5, 4), null));
+        game.setGameOver(true);
+
+        byte[] bytes = GameCodec.encode(game);
+        ChessGame decoded = GameCodec.decode(bytes);
+
+        assertEquals(39 + 9, bytes.length, "Only the position after the last pawn move is tracked");
+        assertEquals(game, decoded);
+        assertEquals(3, decoded.getPlyCount(), "Ply count should survive a round trip");
+        assertEquals(ChessGame.TeamColor.BLACK, decoded.getTeamTurn());
+        assertTrue(decoded.isGameOver());
+        assertEquals(game.getZobristKey(), decoded.getZobristKey(), "Decoded board should rebuild its key");
+    }
+
+    @Test
+    void keepsRepetitionCounts() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        for (int i = 0; i < 2; i++) {
+            game.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+            game.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+            game.makeMove(new ChessMove(new ChessPosition(3, 6), new ChessPosition(1, 7), null));
+            game.makeMove(new ChessMove(new ChessPosition(6, 6), new ChessPosition(8, 7), null));
+        }
+
+        ChessGame decoded = GameCodec.decode(GameCodec.encode(game));
+        assertEquals(3, decoded.getRepetitionCount());
+        assertEquals(8, decoded.getHalfmoveClock());
+        assertEquals(ChessGame.GameStatus.DRAW_BY_REPETITION, decoded.evaluateStatus(ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    void keepsCastlingAndEnPassantState() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(7, 1), new ChessPosition(6, 1), null));
+        game.makeMove(new ChessMove(new ChessPosition(4, 5), new ChessPosition(5, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(7, 4), new ChessPosition(5, 4), null));
+        game.makeMove(new ChessMove(new ChessPosition(1, 5), new ChessPosition(2, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(7, 6), new ChessPosition(5, 6), null));
+
+        ChessGame decoded = GameCodec.decode(GameCodec.encode(game));
+        assertEquals(game.toFen(), decoded.toFen());
+        assertEquals("rnbqkbnr/1pp1p1pp/p7/3pPp2/8/8/PPPPKPPP/RNBQ1BNR w kq f6 0 4", decoded.toFen());
+    }
+
+    @Test
+    void rejectsUnknownVersion() {
+        byte[] bytes = GameCodec.encode(new ChessGame());
+        bytes[0] = 99;
+        assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(bytes));
+    }
+}
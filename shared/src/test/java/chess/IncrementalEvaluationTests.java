@@ -0,0 +1,59 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IncrementalEvaluationTests {
+
+    @Test
+    void startPositionIsBalanced() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+
+        assertEquals(0, board.getMaterialBalance());
+        assertEquals(0, board.getEvaluation(), "Mirrored armies should score the same");
+    }
+
+    @Test
+    void captureChangesMaterial() {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/3q4/4P3/8/8/4K3 w - - 0 1");
+        ChessBoard board = game.getBoard();
+        assertEquals(-800, board.getMaterialBalance());
+
+        int undo = board.makeMove(new ChessMove(new ChessPosition(4, 5), new ChessPosition(5, 4), null));
+        assertEquals(100, board.getMaterialBalance(), "Pawn takes queen");
+
+        board.unmakeMove(undo);
+        assertEquals(-800, board.getMaterialBalance());
+    }
+
+    @Test
+    void incrementalScoreMatchesRebuiltBoard() {
+        ChessGame game = ChessGame.fromFen("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        int startScore = game.getBoard().getEvaluation();
+        SplittableRandom random = new SplittableRandom(7);
+        MoveList moves = new MoveList();
+        long[] undos = new long[40];
+        int played = 0;
+
+        // random playout, covering castling, en passant and promotions along the way
+        for (; played < undos.length; played++) {
+            moves.clear();
+            game.generateLegalMoves(game.getTeamTurn(), moves);
+            if (moves.isEmpty()) {
+                break;
+            }
+            undos[played] = game.makeMoveUnchecked(moves.get(random.nextInt(moves.size())));
+            ChessBoard rebuilt = ChessBoard.fromFen(game.getBoard().toFen());
+            assertEquals(rebuilt.getEvaluation(), game.getBoard().getEvaluation(), "Score drifted after ply " + played);
+            assertEquals(rebuilt.getMaterialBalance(), game.getBoard().getMaterialBalance());
+        }
+        while (played > 0) {
+            game.unmakeMove(undos[--played]);
+        }
+        assertEquals(startScore, game.getBoard().getEvaluation(), "Unmaking every move should restore the score");
+    }
+}
@@ -0,0 +1,42 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LegalMoveCacheTests {
+
+    @Test
+    void evictsLeastRecentlyUsed() {
+        LegalMoveCache cache = new LegalMoveCache(2);
+        cache.put(1L, new int[]{1});
+        cache.put(2L, new int[]{2});
+        cache.get(1L);
+        cache.put(3L, new int[]{3});
+
+        assertEquals(2, cache.size(), "Cache should stay within its capacity");
+        assertNull(cache.get(2L), "Least recently used entry should be evicted");
+        assertNotNull(cache.get(1L));
+        assertNotNull(cache.get(3L));
+    }
+
+    @Test
+    void boardChangesAreNotServedStaleMoves() {
+        ChessGame game = new ChessGame();
+        ChessPosition knight = new ChessPosition(1, 2);
+        assertEquals(2, game.validMoves(knight).size());
+
+        // blocking a3 through the board changes its key, so the cached moves are not reused
+        game.getBoard().addPiece(new ChessPosition(3, 1),
+                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+        assertEquals(1, game.validMoves(knight).size(), "Knight should only reach c3");
+    }
+
+    @Test
+    void teamsInSamePositionAreCachedSeparately() {
+        ChessGame game = new ChessGame();
+        assertEquals(20, game.allValidMoves(ChessGame.TeamColor.WHITE).size());
+        assertTrue(game.allValidMoves(ChessGame.TeamColor.BLACK).stream()
+                .allMatch(move -> move.getStartPosition().getRow() >= 7), "Black moves should start on black's side");
+    }
+}
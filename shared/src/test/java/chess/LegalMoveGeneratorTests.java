@@ -0,0 +1,82 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+import passoff.chess.TestUtilities;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LegalMoveGeneratorTests {
+
+    @Test
+    void pinnedRookStaysOnPinLine() {
+        ChessGame game = new ChessGame();
+        game.setBoard(TestUtilities.loadBoard("""
+                | | | | |r| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |R| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |K| | |k|
+                """));
+
+        var moves = game.validMoves(new ChessPosition(4, 5));
+        assertEquals(6, moves.size(), "Pinned rook should only move along the e-file");
+        assertTrue(moves.stream().allMatch(move -> move.getEndPosition().getColumn() == 5));
+    }
+
+    @Test
+    void allValidMovesMatchesPerPieceQueries() {
+        ChessGame game = new ChessGame();
+        ChessGame.TeamColor white = ChessGame.TeamColor.WHITE;
+
+        Set<ChessMove> perPiece = new HashSet<>();
+        for (ChessPosition position : game.getBoard().getTeamPositions(white)) {
+            perPiece.addAll(game.validMoves(position));
+        }
+        assertEquals(perPiece, new HashSet<>(game.allValidMoves(white)));
+
+        var byPosition = game.allValidMovesByPosition(white);
+        assertEquals(10, byPosition.size(), "Eight pawns and two knights can move");
+        assertEquals(2, byPosition.get(new ChessPosition(1, 2)).size(), "Knight on b1 has two moves");
+    }
+
+    @Test
+    void matchesTrialFilteringInCheck() {
+        ChessGame game = new ChessGame();
+        game.setBoard(TestUtilities.loadBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                |b| | | | | | | |
+                | | | |N| | | | |
+                | | |P| |B| | | |
+                | | | | | | |n| |
+                | |R| | |K| | |r|
+                """));
+        ChessGame.TeamColor white = ChessGame.TeamColor.WHITE;
+
+        MoveList legal = new MoveList();
+        game.generateLegalMoves(white, legal);
+        MoveList pseudoLegal = new MoveList();
+        game.getBoard().generatePseudoLegalMoves(white, pseudoLegal);
+
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < pseudoLegal.size(); i++) {
+            long undo = game.makeMoveUnchecked(pseudoLegal.get(i));
+            if (!game.isInCheck(white)) {
+                expected.add(pseudoLegal.get(i));
+            }
+            game.unmakeMove(undo);
+        }
+        Set<Integer> actual = new HashSet<>();
+        for (int i = 0; i < legal.size(); i++) {
+            actual.add(legal.get(i));
+        }
+        assertEquals(expected, actual, "Legal generator should agree with trying every move");
+    }
+}
@@ -0,0 +1,40 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoveHistoryTests {
+
+    @Test
+    void logsMovesInOrder() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        ChessMove e4 = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null);
+        ChessMove e5 = new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null);
+        game.makeMove(e4);
+        game.makeMove(e5);
+
+        assertEquals(List.of(e4, e5), game.getMoveHistory());
+        assertEquals(2, game.getPlyCount());
+
+        ChessGame copy = new ChessGame(game);
+        copy.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+        assertEquals(2, game.getMoveHistory().size(), "Copies should log independently");
+    }
+
+    @Test
+    void replayingHistoryReachesSamePosition() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 4), new ChessPosition(4, 4), null));
+        game.makeMove(new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(4, 4), new ChessPosition(5, 5), null));
+
+        ChessGame replay = new ChessGame();
+        for (ChessMove move : game.getMoveHistory()) {
+            replay.makeMove(move);
+        }
+        assertEquals(game, replay);
+    }
+}
@@ -0,0 +1,142 @@
+package chess;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.api.Test;
+import passoff.chess.TestUtilities;
+
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Perft regression suite. Positions and counts come from the standard perft
+ * reference positions; castling rights are taken from where the kings and
+ * rooks stand, which matches every position used here.
+ */
+public class PerftTests {
+
+    private static final String START = """
+            |r|n|b|q|k|b|n|r|
+            |p|p|p|p|p|p|p|p|
+            | | | | | | | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            |P|P|P|P|P|P|P|P|
+            |R|N|B|Q|K|B|N|R|
+            """;
+
+    // reference position 3
+    private static final String ROOK_ENDGAME = """
+            | | | | | | | | |
+            | | |p| | | | | |
+            | | | |p| | | | |
+            |K|P| | | | | |r|
+            | |R| | | |p| |k|
+            | | | | | | | | |
+            | | | | |P| |P| |
+            | | | | | | | | |
+            """;
+
+    // reference position 2, "Kiwipete", full of castling, en passant and pins
+    private static final String KIWIPETE = """
+            |r| | | |k| | |r|
+            |p| |p|p|q|p|b| |
+            |b|n| | |p|n|p| |
+            | | | |P|N| | | |
+            | |p| | |P| | | |
+            | | |N| | |Q| |p|
+            |P|P|P|B|B|P|P|P|
+            |R| | | |K| | |R|
+            """;
+
+    private static final String PROMOTIONS = """
+            |n| |n| | | | | |
+            |P|P|P|k| | | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            | | | | | | | | |
+            | | | | |K|p|p|p|
+            | | | | | |N| |N|
+            """;
+
+    // reference position 6, castling rights already lost
+    private static final String MIDDLEGAME = """
+            |r| | | | |r|k| |
+            | |p|p| |q|p|p|p|
+            |p| |n|p| |n| | |
+            | | |b| |p| |B| |
+            | | |B| |P| |b| |
+            |P| |N|P| |N| | |
+            | |P|P| |Q|P|P|P|
+            |R| | | | |R|K| |
+            """;
+
+    static Stream<Arguments> referencePositions() {
+        return Stream.of(
+                Arguments.of("start", START, ChessGame.TeamColor.WHITE, 1, 20L),
+                Arguments.of("start", START, ChessGame.TeamColor.WHITE, 2, 400L),
+                Arguments.of("start", START, ChessGame.TeamColor.WHITE, 3, 8902L),
+                Arguments.of("start", START, ChessGame.TeamColor.WHITE, 4, 197281L),
+                Arguments.of("rook endgame", ROOK_ENDGAME, ChessGame.TeamColor.WHITE, 1, 14L),
+                Arguments.of("rook endgame", ROOK_ENDGAME, ChessGame.TeamColor.WHITE, 2, 191L),
+                Arguments.of("rook endgame", ROOK_ENDGAME, ChessGame.TeamColor.WHITE, 3, 2812L),
+                Arguments.of("rook endgame", ROOK_ENDGAME, ChessGame.TeamColor.WHITE, 4, 43238L),
+                Arguments.of("kiwipete", KIWIPETE, ChessGame.TeamColor.WHITE, 1, 48L),
+                Arguments.of("kiwipete", KIWIPETE, ChessGame.TeamColor.WHITE, 2, 2039L),
+                Arguments.of("kiwipete", KIWIPETE, ChessGame.TeamColor.WHITE, 3, 97862L),
+                Arguments.of("promotions", PROMOTIONS, ChessGame.TeamColor.BLACK, 1, 24L),
+                Arguments.of("promotions", PROMOTIONS, ChessGame.TeamColor.BLACK, 2, 496L),
+                Arguments.of("promotions", PROMOTIONS, ChessGame.TeamColor.BLACK, 3, 9483L),
+                Arguments.of("promotions", PROMOTIONS, ChessGame.TeamColor.BLACK, 4, 182838L),
+                Arguments.of("middlegame", MIDDLEGAME, ChessGame.TeamColor.WHITE, 1, 46L),
+                Arguments.of("middlegame", MIDDLEGAME, ChessGame.TeamColor.WHITE, 2, 2079L),
+                Arguments.of("middlegame", MIDDLEGAME, ChessGame.TeamColor.WHITE, 3, 89890L)
+        );
+    }
+
+    @ParameterizedTest(name = "{0} depth {3}")
+    @MethodSource("referencePositions")
+    void perftMatchesReference(String name, String boardText, ChessGame.TeamColor turn, int depth, long expected) {
+        ChessGame game = loadGame(boardText, turn);
+        assertEquals(expected, Perft.perft(game, depth), "Wrong perft count for " + name + " at depth " + depth);
+    }
+
+    @ParameterizedTest(name = "{0} depth {3}")
+    @MethodSource("referencePositions")
+    void parallelPerftMatchesReference(String name, String boardText, ChessGame.TeamColor turn, int depth, long expected) {
+        ChessGame game = loadGame(boardText, turn);
+        assertEquals(expected, Perft.parallelPerft(game, depth), "Wrong parallel count for " + name + " at depth " + depth);
+    }
+
+    @Test
+    void divideSumsToPerft() {
+        ChessGame game = loadGame(START, ChessGame.TeamColor.WHITE);
+        Map<ChessMove, Long> divide = Perft.divide(game, 3);
+
+        assertEquals(20, divide.size(), "Divide should list every legal root move");
+        assertEquals(8902L, divide.values().stream().mapToLong(Long::longValue).sum());
+        assertEquals(600L, divide.get(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null)),
+                "Wrong count under e2e4");
+    }
+
+    @Test
+    void perftLeavesGameUnchanged() {
+        ChessGame game = loadGame(MIDDLEGAME, ChessGame.TeamColor.WHITE);
+        ChessGame before = new ChessGame(game);
+
+        Perft.perft(game, 2);
+        assertEquals(before, game, "Perft should not change the game it counts");
+    }
+
+    private static ChessGame loadGame(String boardText, ChessGame.TeamColor turn) {
+        ChessGame game = new ChessGame();
+        game.setBoard(TestUtilities.loadBoard(boardText));
+        game.setTeamTurn(turn);
+        return game;
+    }
+}
@@ -0,0 +1,66 @@
+package chess;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ZobristKeyTests {
+
+    @Test
+    void transpositionsShareKey() throws InvalidMoveException {
+        ChessGame game1 = new ChessGame();
+        game1.makeMove(new ChessMove(new ChessPosition(1, 2), new ChessPosition(3, 3), null));
+        game1.makeMove(new ChessMove(new ChessPosition(8, 2), new ChessPosition(6, 3), null));
+        game1.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+
+        ChessGame game2 = new ChessGame();
+        game2.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+        game2.makeMove(new ChessMove(new ChessPosition(8, 2), new ChessPosition(6, 3), null));
+        game2.makeMove(new ChessMove(new ChessPosition(1, 2), new ChessPosition(3, 3), null));
+
+        assertEquals(game1, game2);
+        assertEquals(game1.getZobristKey(), game2.getZobristKey(), "Same position should have the same key");
+    }
+
+    @Test
+    void sideToMoveChangesKey() {
+        ChessGame game = new ChessGame();
+        long whiteKey = game.getZobristKey();
+        long boardKey = game.getBoard().getZobristKey();
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+
+        assertNotEquals(whiteKey, game.getZobristKey(), "Side to move should be part of the key");
+        assertEquals(boardKey, game.getBoard().getZobristKey(), "Board key should not depend on side to move");
+    }
+
+    @Test
+    void castlingRightsChangeKey() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+        game.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+        game.makeMove(new ChessMove(new ChessPosition(1, 8), new ChessPosition(1, 7), null));
+        game.makeMove(new ChessMove(new ChessPosition(8, 8), new ChessPosition(8, 7), null));
+        game.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(1, 8), null));
+        game.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(8, 8), null));
+
+        ChessGame knightsOut = new ChessGame();
+        knightsOut.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null));
+        knightsOut.makeMove(new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null));
+
+        assertEquals(knightsOut.getBoard(), game.getBoard());
+        assertNotEquals(knightsOut.getZobristKey(), game.getZobristKey(), "Lost castling rights should change the key");
+    }
+
+    @Test
+    void unmakeRestoresKey() {
+        ChessBoard board = new ChessBoard();
+        board.resetBoard();
+        long key = board.getZobristKey();
+
+        int undo = board.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        assertNotEquals(key, board.getZobristKey());
+
+        board.unmakeMove(undo);
+        assertEquals(key, board.getZobristKey(), "Unmake should restore the key");
+    }
+}
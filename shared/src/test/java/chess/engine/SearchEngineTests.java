@@ -0,0 +1,146 @@
+package chess.engine;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchEngineTests {
+
+    private final SearchEngine engine = new SearchEngine();
+
+    @Test
+    void findsBackRankMate() {
+        ChessGame game = ChessGame.fromFen("6k1/5ppp/8/8/8/8/5PPP/R5K1 w - - 0 1");
+        SearchResult result = engine.search(game, SearchLimits.depth(4));
+
+        assertEquals(new ChessMove(new ChessPosition(1, 1), new ChessPosition(8, 1), null), result.bestMove());
+        assertTrue(result.isMate());
+        assertEquals(SearchEngine.MATE - 1, result.score(), "Mate in one should score one ply from mate");
+    }
+
+    @Test
+    void winsHangingQueen() {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/4q3/8/8/8/4R1K1 w - - 0 1");
+        SearchResult result = engine.search(game, SearchLimits.depth(3));
+
+        assertEquals(new ChessMove(new ChessPosition(1, 5), new ChessPosition(5, 5), null), result.bestMove());
+        assertTrue(result.score() > 0, "White should be ahead after taking the queen");
+    }
+
+    @Test
+    void stopsAtNodeBudget() {
+        ChessGame game = new ChessGame();
+        SearchResult result = engine.search(game, SearchLimits.nodes(5_000));
+
+        assertNotNull(result.bestMove(), "A stopped search still answers with a move");
+        assertTrue(result.nodes() <= 5_000, "Visited " + result.nodes() + " nodes");
+        assertTrue(game.validMoves(result.bestMove().getStartPosition()).contains(result.bestMove()));
+    }
+
+    @Test
+    void stopsAtTimeBudget() {
+        SearchResult result = engine.search(new ChessGame(), SearchLimits.timeMillis(100));
+
+        assertNotNull(result.bestMove());
+        assertTrue(result.elapsedMillis() < 1_000, "Search took " + result.elapsedMillis() + " ms");
+    }
+
+    @Test
+    void leavesGameUnchanged() {
+        ChessGame game = ChessGame.fromFen("r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 2 3");
+        ChessGame before = new ChessGame(game);
+
+        engine.search(game, SearchLimits.depth(3));
+        assertEquals(before, game);
+        assertEquals(before.toFen(), game.toFen());
+    }
+
+    @Test
+    void helperThreadsShareTheSearch() {
+        ChessGame game = ChessGame.fromFen("6k1/5ppp/8/8/8/8/5PPP/R5K1 w - - 0 1");
+        try (SearchEngine smp = new SearchEngine(new TranspositionTable(4), 3)) {
+            SearchResult result = smp.search(game, SearchLimits.depth(5).withThreads(4));
+
+            assertEquals(new ChessMove(new ChessPosition(1, 1), new ChessPosition(8, 1), null), result.bestMove());
+            assertEquals(SearchEngine.MATE - 1, result.score());
+        }
+    }
+
+    @Test
+    void multiThreadedSearchStopsOnTime() {
+        try (SearchEngine smp = new SearchEngine(new TranspositionTable(4), 3)) {
+            SearchResult result = smp.search(new ChessGame(), SearchLimits.timeMillis(100).withThreads(4));
+
+            assertNotNull(result.bestMove());
+            assertTrue(result.elapsedMillis() < 1_000, "Search took " + result.elapsedMillis() + " ms");
+            assertTrue(result.nodes() > 0);
+        }
+    }
+
+    @Test
+    void concurrentSearchKeepsItsTimeBudgetWhenHelpersAreBusy() throws InterruptedException {
+        try (SearchEngine smp = new SearchEngine(new TranspositionTable(4), 2)) {
+            Thread longSearch = new Thread(() -> smp.search(new ChessGame(), SearchLimits.timeMillis(1_500).withThreads(3)));
+            longSearch.start();
+            Thread.sleep(100); // let it take both helper threads
+
+            long start = System.nanoTime();
+            SearchResult result = smp.search(new ChessGame(), SearchLimits.timeMillis(50).withThreads(3));
+            long wallMillis = (System.nanoTime() - start) / 1_000_000;
+            longSearch.join();
+
+            assertNotNull(result.bestMove());
+            assertTrue(wallMillis < 1_000, "Search returned after " + wallMillis + " ms");
+        }
+    }
+
+    @Test
+    void closedEngineSearchesOnCallingThread() {
+        SearchEngine smp = new SearchEngine(new TranspositionTable(1), 2);
+        smp.close();
+
+        SearchResult result = smp.search(new ChessGame(), SearchLimits.depth(3).withThreads(3));
+        assertNotNull(result.bestMove());
+    }
+
+    @Test
+    void takesThreefoldRepetitionFromGameHistory() throws InvalidMoveException {
+        // black is a queen down; white's king and black's knight shuffle until c6-b8 would repeat a third time
+        ChessGame game = ChessGame.fromFen("kn6/8/8/8/8/8/8/3Q3K w - - 0 1");
+        for (int round = 0; round < 2; round++) {
+            game.makeMove(new ChessMove(new ChessPosition(1, 8), new ChessPosition(1, 7), null));
+            game.makeMove(new ChessMove(new ChessPosition(8, 2), new ChessPosition(6, 3), null));
+            game.makeMove(new ChessMove(new ChessPosition(1, 7), new ChessPosition(1, 8), null));
+            if (round == 0) {
+                game.makeMove(new ChessMove(new ChessPosition(6, 3), new ChessPosition(8, 2), null));
+            }
+        }
+        SearchResult result = engine.search(game, SearchLimits.depth(3));
+
+        assertEquals(new ChessMove(new ChessPosition(6, 3), new ChessPosition(8, 2), null), result.bestMove());
+        assertEquals(0, result.score());
+        assertTrue(engine.search(ChessGame.fromFen(game.toFen()), SearchLimits.depth(3)).score() < 0,
+                "Without the history black is just lost");
+    }
+
+    @Test
+    void scoresFiftyMoveDraw() {
+        ChessGame game = ChessGame.fromFen("k7/8/8/8/8/8/8/3Q3K b - - 99 80");
+        SearchResult result = engine.search(game, SearchLimits.depth(3));
+
+        assertEquals(0, result.score(), "Any black move runs out the fifty-move clock");
+    }
+
+    @Test
+    void noMoveWhenStalemated() {
+        ChessGame game = ChessGame.fromFen("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1");
+        SearchResult result = engine.search(game, SearchLimits.depth(2));
+
+        assertNull(result.bestMove());
+        assertEquals(0, result.score());
+    }
+}
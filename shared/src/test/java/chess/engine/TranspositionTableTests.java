@@ -0,0 +1,89 @@
+package chess.engine;
+
+import chess.ChessGame;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TranspositionTableTests {
+
+    @Test
+    void sizeIsPowerOfTwoWithinBudget() {
+        TranspositionTable table = new TranspositionTable(3);
+        assertEquals(1 << 17, table.capacity(), "3 MB holds 196608 entries, rounded down to 2^17");
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+    }
+
+    @Test
+    void storesAndProbesEntries() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 0x1234_5678_9ABC_DEF0L;
+        table.store(key, 0x3C4, -250, 7, TranspositionTable.LOWER_BOUND, 3);
+
+        long entry = table.probe(key);
+        assertNotEquals(TranspositionTable.NO_ENTRY, entry);
+        assertEquals(0x3C4, TranspositionTable.move(entry));
+        assertEquals(-250, TranspositionTable.score(entry, 3));
+        assertEquals(7, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable.bound(entry));
+
+        assertEquals(TranspositionTable.NO_ENTRY, table.probe(key ^ (1L << 40)), "Same slot, different key");
+        table.clear();
+        assertEquals(TranspositionTable.NO_ENTRY, table.probe(key));
+    }
+
+    @Test
+    void mateScoresAreStoredRelativeToNode() {
+        TranspositionTable table = new TranspositionTable(1);
+        // mate found 5 plies from the root, at a node 2 plies deep
+        table.store(42L, 0, SearchEngine.MATE - 5, 4, TranspositionTable.EXACT, 2);
+
+        long entry = table.probe(42L);
+        assertEquals(SearchEngine.MATE - 5, TranspositionTable.score(entry, 2));
+        assertEquals(SearchEngine.MATE - 7, TranspositionTable.score(entry, 4), "Reached deeper, the mate is further away");
+    }
+
+    @Test
+    void concurrentWritersNeverYieldTornEntries() throws InterruptedException {
+        TranspositionTable table = new TranspositionTable(1);
+        int slots = 64; // few slots, so writers collide constantly
+        AtomicBoolean torn = new AtomicBoolean();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            int seed = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 200_000; i++) {
+                    long key = ((long) (i * 31 + seed) << 32) | ((i + seed) % slots);
+                    // every field is derived from the key, so a mismatch means words from two writes
+                    int move = (int) (key >>> 32) & 0xFFFFF;
+                    table.store(key, move, move % 1000, move % 50, TranspositionTable.EXACT, 0);
+                    long probeKey = ((long) (i * 31 + seed + 1) << 32) | ((i + seed + 1) % slots);
+                    long entry = table.probe(probeKey);
+                    if (entry != TranspositionTable.NO_ENTRY
+                            && TranspositionTable.move(entry) != ((int) (probeKey >>> 32) & 0xFFFFF)) {
+                        torn.set(true);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertFalse(torn.get(), "A probe returned data written for another key");
+    }
+
+    @Test
+    void sharedTableSpeedsUpRepeatSearch() {
+        SearchEngine engine = new SearchEngine(new TranspositionTable(4));
+        ChessGame game = new ChessGame();
+
+        SearchResult first = engine.search(game, SearchLimits.depth(5));
+        SearchResult second = engine.search(game, SearchLimits.depth(5));
+        assertTrue(second.nodes() < first.nodes(), "Second search should reuse stored results: "
+                + first.nodes() + " then " + second.nodes());
+        assertEquals(first.bestMove(), second.bestMove());
+    }
+}
@@ -0,0 +1,81 @@
+package serialization;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.InvalidMoveException;
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+import websocket.commands.UserGameCommand;
+import websocket.messages.ErrorMessage;
+import websocket.messages.LoadGameMessage;
+import websocket.messages.NotificationMessage;
+import websocket.messages.ServerMessage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GsonFactoryTests {
+
+    private final Gson gson = GsonFactory.gson();
+
+    @Test
+    void commandMatchesReflectiveLayout() {
+        UserGameCommand command = new UserGameCommand(UserGameCommand.CommandType.MAKE_MOVE, "token", 7,
+                new ChessMove(new ChessPosition(7, 1), new ChessPosition(8, 1), ChessPiece.PieceType.QUEEN));
+
+        String json = gson.toJson(command);
+        assertEquals(new Gson().toJson(command), json, "Commands should stay wire compatible");
+        assertEquals(command, gson.fromJson(json, UserGameCommand.class));
+    }
+
+    @Test
+    void readsReflectiveCommandInAnyFieldOrder() {
+        String json = "{\"move\":{\"endPosition\":{\"col\":4,\"row\":4},\"startPosition\":{\"row\":2,\"col\":4}},"
+                + "\"gameID\":3,\"authToken\":\"abc\",\"commandType\":\"MAKE_MOVE\",\"extra\":[1,2]}";
+        UserGameCommand command = gson.fromJson(json, UserGameCommand.class);
+
+        assertEquals(UserGameCommand.CommandType.MAKE_MOVE, command.getCommandType());
+        assertEquals(3, command.getGameID());
+        assertEquals(new ChessMove(new ChessPosition(2, 4), new ChessPosition(4, 4), null), command.getMove());
+    }
+
+    @Test
+    void loadGameRoundTrip() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+        game.setGameOver(true);
+
+        String json = gson.toJson(new LoadGameMessage(game));
+        ServerMessage message = gson.fromJson(json, ServerMessage.class);
+
+        LoadGameMessage loadGame = assertInstanceOf(LoadGameMessage.class, message);
+        assertEquals(game, loadGame.getGame());
+        assertTrue(loadGame.getGame().isGameOver());
+    }
+
+    @Test
+    void loadGameKeepsCastlingEnPassantAndClocks() {
+        ChessGame game = ChessGame.fromFen("r3k2r/8/8/3pP3/8/8/8/R3K2R w Kq d6 4 20");
+
+        String json = gson.toJson(new LoadGameMessage(game));
+        ChessGame loaded = assertInstanceOf(LoadGameMessage.class, gson.fromJson(json, ServerMessage.class)).getGame();
+
+        assertEquals(game.toFen(), loaded.toFen());
+        assertEquals(game.getZobristKey(), loaded.getZobristKey());
+        assertEquals(game.getRepetitionCount(), loaded.getRepetitionCount());
+        assertEquals(game.validMoves(new ChessPosition(1, 5)), loaded.validMoves(new ChessPosition(1, 5)),
+                "Only white's kingside castle should be legal after the trip");
+        assertTrue(loaded.validMoves(new ChessPosition(5, 5))
+                .contains(new ChessMove(new ChessPosition(5, 5), new ChessPosition(6, 4), null)), "exd6 should be legal");
+    }
+
+    @Test
+    void serverMessagesDecodeToTheirSubclass() {
+        ServerMessage note = gson.fromJson(gson.toJson(new NotificationMessage("hi")), ServerMessage.class);
+        assertEquals("hi", assertInstanceOf(NotificationMessage.class, note).getMessage());
+
+        ErrorMessage error = gson.fromJson("{\"errorMessage\":\"bad\",\"serverMessageType\":\"ERROR\"}", ErrorMessage.class);
+        assertEquals("bad", error.getErrorMessage());
+    }
+}